@@ -81,8 +81,10 @@ public final class CzechVocabulary implements Vocabulary {
         VOCABULARY.put("Count of V", "Pocet V");
         VOCABULARY.put("Count of W", "Pocet Vknd");
         VOCABULARY.put("Total", "Celkem");
+        VOCABULARY.put("Uncovered shifts", "Neobsazene smeny");
         VOCABULARY.put("Summary", "Shrnuti");
         VOCABULARY.put("Request", "Pozadavek");
+        VOCABULARY.put("Pinned", "Pevne prirazeno");
         VOCABULARY.put("Terminating generation.", "Generovani preruseno.");
     }
 
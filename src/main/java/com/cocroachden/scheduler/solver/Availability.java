@@ -3,34 +3,52 @@ package com.cocroachden.scheduler.solver;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import com.cocroachden.scheduler.domain.AvailabilityId;
 import lombok.Builder;
+import lombok.With;
 
 import java.time.LocalDate;
 
 @Builder
+@With
 public record Availability(
-        @PlanningId AvailabilityId id,
+        @PlanningId int index,
+        AvailabilityId id,
         Employee employee,
-        LocalDate date,
+        Day day,
         ShiftType shiftType,
         AvailabilityType type
 ) {
     public static Availability of(
             Employee employee,
-            LocalDate date,
+            Day day,
             ShiftType shiftType,
             AvailabilityType type
     ) {
         return new Availability(
-                new AvailabilityId(employee.getEmployeeId().id() + date.toString() + shiftType.getSymbol()),
+                0,
+                new AvailabilityId(employee.getEmployeeId().id() + day.date().toString() + shiftType.getSymbol()),
                 employee,
-                date,
+                day,
                 shiftType,
                 type
         );
     }
 
+    public LocalDate date() {
+        return day.date();
+    }
+
     public String getSymbol() {
         return type.getSymbol() + shiftType.getSymbol();
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
 }
@@ -0,0 +1,109 @@
+package com.cocroachden.scheduler.solver;
+
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+
+import java.util.List;
+
+/**
+ * Availability requests of all employees as one flat lookup table indexed by employee index, day index and
+ * {@link ShiftType}. Built once from {@link EmployeeSchedule#getAvailabilities()}, so constraints can check
+ * a {@link ShiftAssignment} against the requests without joining the availability records. Problem changes of a
+ * running solve replace it with an updated copy, see {@link #with}, best solutions found before the change keep
+ * the old one. It also counts the {@link AvailabilityType#REQUIRED} requests of every employee.
+ */
+public final class AvailabilityMatrix {
+
+    private static final AvailabilityType[] AVAILABILITY_TYPES = AvailabilityType.values();
+    private static final int SHIFT_TYPE_COUNT = ShiftType.values().length;
+
+    /**
+     * Counts the copies, a problem change adds the new matrix to the working solution before it removes the old one,
+     * so both need their own planning id.
+     */
+    @PlanningId
+    private final int version;
+    private final int employeeCount;
+    private final int dayCount;
+    /**
+     * Ordinal of the requested {@link AvailabilityType} + 1, 0 when there is no request.
+     */
+    private final byte[] types;
+    /**
+     * Number of {@link AvailabilityType#REQUIRED} requests per employee index.
+     */
+    private final int[] requiredCounts;
+
+    private AvailabilityMatrix(final int version, final int employeeCount, final int dayCount) {
+        this.version = version;
+        this.employeeCount = employeeCount;
+        this.dayCount = dayCount;
+        this.types = new byte[employeeCount * dayCount * SHIFT_TYPE_COUNT];
+        this.requiredCounts = new int[employeeCount];
+    }
+
+    public static AvailabilityMatrix of(List<Employee> employees, List<Day> days, List<Availability> availabilities) {
+        var employeeCount = employees.stream().mapToInt(Employee::getIndex).max().orElse(-1) + 1;
+        var dayCount = days.stream().mapToInt(Day::index).max().orElse(-1) + 1;
+        var matrix = new AvailabilityMatrix(0, employeeCount, dayCount);
+        availabilities.forEach(availability -> matrix.set(
+                availability.employee().getIndex(),
+                availability.day().index(),
+                availability.shiftType(),
+                availability.type()
+        ));
+        return matrix;
+    }
+
+    /**
+     * @return requested availability or null when the employee has no request for the shift
+     */
+    public AvailabilityType get(Employee employee, Day day, ShiftType shiftType) {
+        if (employee.getIndex() >= employeeCount || day.index() >= dayCount) {
+            return null;
+        }
+        var type = types[offset(employee.getIndex(), day.index(), shiftType)];
+        return type == 0 ? null : AVAILABILITY_TYPES[type - 1];
+    }
+
+    /**
+     * @return copy with the request of the employee for the shift replaced, null removes it, grown for employees
+     * added after this matrix has been built
+     */
+    public AvailabilityMatrix with(Employee employee, Day day, ShiftType shiftType, AvailabilityType type) {
+        var copy = new AvailabilityMatrix(version + 1, Math.max(employeeCount, employee.getIndex() + 1), dayCount);
+        System.arraycopy(types, 0, copy.types, 0, types.length);
+        System.arraycopy(requiredCounts, 0, copy.requiredCounts, 0, requiredCounts.length);
+        copy.set(employee.getIndex(), day.index(), shiftType, type);
+        return copy;
+    }
+
+    /**
+     * @return number of shifts the employee has requested with {@link AvailabilityType#REQUIRED}
+     */
+    public int requiredCount(Employee employee) {
+        return employee.getIndex() < employeeCount ? requiredCounts[employee.getIndex()] : 0;
+    }
+
+    public AvailabilityType get(ShiftAssignment shiftAssignment) {
+        return get(shiftAssignment.getEmployee(), shiftAssignment.getDay(), shiftAssignment.getShiftType());
+    }
+
+    public boolean is(ShiftAssignment shiftAssignment, AvailabilityType type) {
+        return shiftAssignment.getEmployee() != null && get(shiftAssignment) == type;
+    }
+
+    private void set(int employeeIndex, int dayIndex, ShiftType shiftType, AvailabilityType type) {
+        var offset = offset(employeeIndex, dayIndex, shiftType);
+        if (types[offset] == AvailabilityType.REQUIRED.ordinal() + 1) {
+            requiredCounts[employeeIndex]--;
+        }
+        if (type == AvailabilityType.REQUIRED) {
+            requiredCounts[employeeIndex]++;
+        }
+        types[offset] = type == null ? 0 : (byte) ( type.ordinal() + 1 );
+    }
+
+    private int offset(int employeeIndex, int dayIndex, ShiftType shiftType) {
+        return ( employeeIndex * dayCount + dayIndex ) * SHIFT_TYPE_COUNT + shiftType.ordinal();
+    }
+}
@@ -0,0 +1,43 @@
+package com.cocroachden.scheduler.solver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Value ranges of the shift assignments, see {@link EmployeeSchedule#initializeFacts()}. A value range is computed
+ * once per day and shift type and equal value ranges are the same immutable list, so a problem holds one list per
+ * availability pattern instead of a copy of the employees per shift.
+ */
+public final class AvailableEmployees {
+
+    private final List<Employee> employees;
+    private final AvailabilityMatrix availabilityMatrix;
+    private final Map<Slot, List<Employee>> slotValueRanges = new HashMap<>();
+    private final Map<List<Employee>, List<Employee>> valueRanges = new HashMap<>();
+
+    public AvailableEmployees(final List<Employee> employees, final AvailabilityMatrix availabilityMatrix) {
+        this.employees = employees;
+        this.availabilityMatrix = availabilityMatrix;
+    }
+
+    /**
+     * @return the employees who have not marked the shift as unavailable, never modified
+     */
+    public List<Employee> of(ShiftAssignment shiftAssignment) {
+        return slotValueRanges.computeIfAbsent(new Slot(shiftAssignment.getDay(), shiftAssignment.getShiftType()), this::compute);
+    }
+
+    private List<Employee> compute(Slot slot) {
+        var availableEmployees = employees.stream()
+                                          .filter(employee -> availabilityMatrix.get(employee, slot.day(), slot.shiftType()) != AvailabilityType.UNAVAILABLE)
+                                          .toList();
+        // nobody is available, let the hard constraint decide who gets the shift instead of leaving it empty
+        var valueRange = availableEmployees.isEmpty() ? List.copyOf(employees) : availableEmployees;
+        return valueRanges.computeIfAbsent(valueRange, Function.identity());
+    }
+
+    private record Slot(Day day, ShiftType shiftType) {
+    }
+}
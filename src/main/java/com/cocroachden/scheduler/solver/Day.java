@@ -0,0 +1,57 @@
+package com.cocroachden.scheduler.solver;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Calendar facts of a single schedule day, computed once when the problem is read so that the constraints
+ * can work on plain ints instead of {@link LocalDate} arithmetic.
+ *
+ * @param index     dense index of the day, 0 is the start date of the schedule
+ * @param week      dense index of the (Monday based) calendar week, 0 is the week of the start date
+ * @param weekendId shared by Saturday and Sunday of the same weekend, -1 for working days
+ */
+public record Day(
+        int index,
+        LocalDate date,
+        DayOfWeek dayOfWeek,
+        int week,
+        boolean weekend,
+        int weekendId
+) {
+
+    public static Day of(LocalDate startDate, LocalDate date) {
+        var index = (int) ChronoUnit.DAYS.between(startDate, date);
+        var week = Math.floorDiv(index + startDate.getDayOfWeek().getValue() - 1, 7);
+        var dayOfWeek = date.getDayOfWeek();
+        var weekend = dayOfWeek.getValue() > 5;
+        return new Day(index, date, dayOfWeek, week, weekend, weekend ? week : -1);
+    }
+
+    public static List<Day> range(LocalDate startDate, LocalDate endDate) {
+        return IntStream.rangeClosed(0, (int) ChronoUnit.DAYS.between(startDate, endDate))
+                        .mapToObj(i -> Day.of(startDate, startDate.plusDays(i)))
+                        .toList();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof Day other) {
+            return index == other.index;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return date.toString();
+    }
+}
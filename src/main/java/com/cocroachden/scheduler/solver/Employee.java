@@ -1,6 +1,7 @@
 package com.cocroachden.scheduler.solver;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import ai.timefold.solver.core.api.domain.variable.InverseRelationShadowVariable;
 import ai.timefold.solver.core.api.domain.variable.ShadowVariable;
 import com.cocroachden.scheduler.domain.EmployeeId;
@@ -11,34 +12,38 @@ import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 @Getter
 @PlanningEntity
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public final class Employee {
+    @PlanningId
+    @Setter(AccessLevel.PACKAGE)
+    private int index;
     private EmployeeId employeeId;
-    private Integer minimumShiftCount;
+    private int minimumShiftCount;
     @InverseRelationShadowVariable(sourceVariableName = "employee")
     private final List<ShiftAssignment> shiftAssignments = new ArrayList<>();
     @Setter
     @ShadowVariable(
-            sourceVariableName = "shiftAssignments",
+            sourceEntityClass = ShiftAssignment.class,
+            sourceVariableName = "employee",
             variableListenerClass = EmployeeShiftAssignmentsListener.class
     )
     private EmployeeShiftAssignmentInfo assignmentInfo = new EmployeeShiftAssignmentInfo(0, 0, 0);
 
-    public Employee(final EmployeeId employeeId, final Integer minimumShiftCount) {
+    public Employee(final EmployeeId employeeId, final int minimumShiftCount) {
         this.employeeId = employeeId;
         this.minimumShiftCount = minimumShiftCount;
     }
 
+    /**
+     * Employees are interned by {@link EmployeeSchedule#initializeFacts()}, every employee of a schedule is a single
+     * instance with a dense index, so identity is enough and the hash is the index.
+     */
     @Override
     public boolean equals(final Object obj) {
-        if (obj instanceof Employee other) {
-            return employeeId.equals(other.employeeId);
-        }
-        return false;
+        return this == obj;
     }
 
     @Override
@@ -48,7 +53,7 @@ public final class Employee {
 
     @Override
     public int hashCode() {
-        return Objects.hash(employeeId.id());
+        return index;
     }
 
 }
@@ -1,11 +1,13 @@
 package com.cocroachden.scheduler.solver;
 
+import ai.timefold.solver.core.api.domain.solution.ConstraintWeightOverrides;
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
 import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
 import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty;
-import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
-import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.domain.solution.ProblemFactProperty;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.cocroachden.scheduler.domain.EmployeeId;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,6 +15,7 @@ import lombok.Setter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @PlanningSolution
 @Setter
@@ -24,17 +27,112 @@ public class EmployeeSchedule {
     private LocalDate endDate;
 
     @ProblemFactCollectionProperty
-    @ValueRangeProvider
+    private List<Day> days = new ArrayList<>();
+
+    @ProblemFactCollectionProperty
     private List<Employee> employees = new ArrayList<>();
 
     @ProblemFactCollectionProperty
     private List<Availability> availabilities = new ArrayList<>();
 
+    @ProblemFactProperty
+    private AvailabilityMatrix availabilityMatrix;
+
     @PlanningEntityCollectionProperty
     private Set<ShiftAssignment> shiftAssignments = new LinkedHashSet<>();
 
+    private ConstraintWeightOverrides<HardMediumSoftScore> constraintWeightOverrides = ConstraintWeightOverrides.none();
+
     @PlanningScore
-    private HardSoftScore score;
+    private HardMediumSoftScore score;
+
+    /**
+     * Number of problem changes applied to a running solve, tells best solutions of the changed problem from the
+     * ones found before the change.
+     */
+    private int problemVersion;
+
+    /**
+     * Interns the problem and derives the lookup facts used by the constraints. Employees, shift assignments and
+     * availabilities get a dense index, which is also their planning id and hash code, the string ids are kept
+     * for reading and writing files only. Every shift assignment gets a value range without the employees who are
+     * unavailable for it, so the solver never proposes them, see {@link AvailableEmployees}. Has to be called once the problem has been read.
+     */
+    public void initializeFacts() {
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setIndex(i);
+        }
+        var shiftAssignmentIndex = 0;
+        for (ShiftAssignment shiftAssignment : shiftAssignments) {
+            shiftAssignment.setIndex(shiftAssignmentIndex++);
+        }
+        // hash codes have changed, the set has to be rebuilt
+        shiftAssignments = new LinkedHashSet<>(shiftAssignments);
+        var indexedAvailabilities = new ArrayList<Availability>(availabilities.size());
+        for (int i = 0; i < availabilities.size(); i++) {
+            indexedAvailabilities.add(availabilities.get(i).withIndex(i));
+        }
+        availabilities = indexedAvailabilities;
+        availabilityMatrix = AvailabilityMatrix.of(employees, days, availabilities);
+        var availableEmployees = new AvailableEmployees(employees, availabilityMatrix);
+        shiftAssignments.forEach(shiftAssignment -> shiftAssignment.setAvailableEmployees(availableEmployees.of(shiftAssignment)));
+    }
+
+    /**
+     * Independent copy of the problem including the current assignments, for solvers running on the same problem in
+     * parallel. Days and the constraint weight overrides are immutable and shared.
+     */
+    public EmployeeSchedule copyProblem() {
+        var copy = new EmployeeSchedule();
+        copy.setStartDate(startDate);
+        copy.setEndDate(endDate);
+        copy.setDays(days);
+        copy.setConstraintWeightOverrides(constraintWeightOverrides);
+        copy.setScore(score);
+        copy.setProblemVersion(problemVersion);
+        // by identity, employees removed from a running solve leave gaps in the indexes
+        var employeeCopies = new IdentityHashMap<Employee, Employee>();
+        employees.forEach(employee -> employeeCopies.put(employee, new Employee(employee.getEmployeeId(), employee.getMinimumShiftCount())));
+        copy.setEmployees(employees.stream().map(employeeCopies::get).collect(Collectors.toCollection(ArrayList::new)));
+        copy.setAvailabilities(availabilities.stream()
+                                             .map(availability -> availability.withEmployee(employeeCopies.get(availability.employee())))
+                                             .collect(Collectors.toCollection(ArrayList::new)));
+        var shiftAssignmentCopies = new LinkedHashSet<ShiftAssignment>();
+        shiftAssignments.forEach(shiftAssignment -> shiftAssignmentCopies.add(
+                new ShiftAssignment()
+                        .setId(shiftAssignment.getId())
+                        .setDay(shiftAssignment.getDay())
+                        .setShiftType(shiftAssignment.getShiftType())
+                        .setPinned(shiftAssignment.isPinned())
+                        .setEmployee(shiftAssignment.getEmployee() == null ? null : employeeCopies.get(shiftAssignment.getEmployee()))
+        ));
+        copy.setShiftAssignments(shiftAssignmentCopies);
+        copy.initializeFacts();
+        copy.getShiftAssignments().stream()
+            .filter(shiftAssignment -> shiftAssignment.getEmployee() != null)
+            .forEach(shiftAssignment -> {
+                shiftAssignment.getEmployee().getShiftAssignments().add(shiftAssignment);
+                shiftAssignment.getEmployee().getAssignmentInfo().add(shiftAssignment);
+            });
+        return copy;
+    }
+
+    /**
+     * New employee with the next free index, for adding to a running solve. It is not added to the schedule.
+     */
+    public Employee newEmployee(EmployeeId employeeId, int minimumShiftCount) {
+        var employee = new Employee(employeeId, minimumShiftCount);
+        employee.setIndex(employees.stream().mapToInt(Employee::getIndex).max().orElse(-1) + 1);
+        return employee;
+    }
+
+    /**
+     * Value range of the shift assignment, see {@link #initializeFacts()}. Problem changes of a running solve
+     * recompute it after changing the employees or the availabilities.
+     */
+    public List<Employee> availableEmployees(ShiftAssignment shiftAssignment) {
+        return new AvailableEmployees(employees, availabilityMatrix).of(shiftAssignment);
+    }
 
     public void printResults() {
         System.out.println("Score: " + score.toString());
@@ -1,44 +1,60 @@
 package com.cocroachden.scheduler.solver;
 
+import ai.timefold.solver.core.api.domain.solution.cloner.DeepPlanningClone;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
 @AllArgsConstructor
+@NoArgsConstructor
 @Getter
+@DeepPlanningClone
 public class EmployeeShiftAssignmentInfo {
 
-    private Integer nightShifts;
-    private Integer dayShifts;
-    private Integer weekendShifts;
+    private int nightShifts;
+    private int dayShifts;
+    private int weekendShifts;
 
     public EmployeeShiftAssignmentInfo(List<ShiftAssignment> shiftAssignments) {
         calculate(shiftAssignments);
     }
 
     public void calculate(List<ShiftAssignment> shiftAssignments) {
-        var dayShifts = 0;
-        var nightShifts = 0;
-        var weekendShifts = 0;
+        this.reset();
         for (ShiftAssignment shiftAssignment : shiftAssignments) {
-            if (shiftAssignment.getShiftType().equals(ShiftType.NIGHT)) {
-                nightShifts++;
-            }
-            if (shiftAssignment.getShiftType().equals(ShiftType.DAY)) {
-                dayShifts++;
-            }
-            if (shiftAssignment.getDate().getDayOfWeek().getValue() > 5) {
-                weekendShifts++;
-            }
+            add(shiftAssignment);
         }
-        this.nightShifts = nightShifts;
-        this.dayShifts = dayShifts;
-        this.weekendShifts = weekendShifts;
     }
 
-    public Integer getTotalCount() {
+    public void reset() {
+        this.nightShifts = 0;
+        this.dayShifts = 0;
+        this.weekendShifts = 0;
+    }
+
+    public void add(ShiftAssignment shiftAssignment) {
+        this.apply(shiftAssignment, 1);
+    }
+
+    public void remove(ShiftAssignment shiftAssignment) {
+        this.apply(shiftAssignment, -1);
+    }
+
+    public int getTotalCount() {
         return nightShifts + dayShifts;
     }
 
+    private void apply(ShiftAssignment shiftAssignment, int delta) {
+        if (shiftAssignment.getShiftType() == ShiftType.NIGHT) {
+            nightShifts += delta;
+        } else {
+            dayShifts += delta;
+        }
+        if (shiftAssignment.getDay().weekend()) {
+            weekendShifts += delta;
+        }
+    }
+
 }
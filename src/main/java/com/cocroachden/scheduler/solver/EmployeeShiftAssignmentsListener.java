@@ -4,38 +4,67 @@ import ai.timefold.solver.core.api.domain.variable.VariableListener;
 import ai.timefold.solver.core.api.score.director.ScoreDirector;
 import org.jspecify.annotations.NonNull;
 
-public class EmployeeShiftAssignmentsListener implements VariableListener<EmployeeSchedule, Employee> {
+/**
+ * Keeps {@link Employee#getAssignmentInfo()} up to date by adding or subtracting the single changed
+ * {@link ShiftAssignment}, instead of rescanning all assignments of the employee on every move.
+ */
+public class EmployeeShiftAssignmentsListener implements VariableListener<EmployeeSchedule, ShiftAssignment> {
     @Override
-    public void beforeVariableChanged(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final Employee employee) {
-
+    public void beforeVariableChanged(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final ShiftAssignment shiftAssignment) {
+        this.retract(scoreDirector, shiftAssignment);
     }
 
     @Override
-    public void afterVariableChanged(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final Employee employee) {
-        scoreDirector.beforeVariableChanged(employee, "assignmentInfo");
-        employee.getAssignmentInfo().calculate(employee.getShiftAssignments());
-        scoreDirector.afterVariableChanged(employee, "assignmentInfo");
+    public void afterVariableChanged(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final ShiftAssignment shiftAssignment) {
+        this.insert(scoreDirector, shiftAssignment);
     }
 
     @Override
-    public void beforeEntityAdded(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final Employee employee) {
+    public void beforeEntityAdded(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final ShiftAssignment shiftAssignment) {
 
     }
 
     @Override
-    public void afterEntityAdded(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final Employee employee) {
-        scoreDirector.beforeVariableChanged(employee, "assignmentInfo");
-        employee.getAssignmentInfo().calculate(employee.getShiftAssignments());
-        scoreDirector.afterVariableChanged(employee, "assignmentInfo");
+    public void afterEntityAdded(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final ShiftAssignment shiftAssignment) {
+        this.insert(scoreDirector, shiftAssignment);
+    }
+
+    @Override
+    public void beforeEntityRemoved(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final ShiftAssignment shiftAssignment) {
+        this.retract(scoreDirector, shiftAssignment);
     }
 
     @Override
-    public void beforeEntityRemoved(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final Employee employee) {
+    public void afterEntityRemoved(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final ShiftAssignment shiftAssignment) {
 
     }
 
     @Override
-    public void afterEntityRemoved(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector, @NonNull final Employee employee) {
+    public void resetWorkingSolution(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        var schedule = scoreDirector.getWorkingSolution();
+        schedule.getEmployees().forEach(employee -> employee.getAssignmentInfo().reset());
+        schedule.getShiftAssignments().stream()
+                .filter(shiftAssignment -> shiftAssignment.getEmployee() != null)
+                .forEach(shiftAssignment -> shiftAssignment.getEmployee().getAssignmentInfo().add(shiftAssignment));
+    }
 
+    private void insert(final ScoreDirector<EmployeeSchedule> scoreDirector, final ShiftAssignment shiftAssignment) {
+        var employee = shiftAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        scoreDirector.beforeVariableChanged(employee, "assignmentInfo");
+        employee.getAssignmentInfo().add(shiftAssignment);
+        scoreDirector.afterVariableChanged(employee, "assignmentInfo");
+    }
+
+    private void retract(final ScoreDirector<EmployeeSchedule> scoreDirector, final ShiftAssignment shiftAssignment) {
+        var employee = shiftAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        scoreDirector.beforeVariableChanged(employee, "assignmentInfo");
+        employee.getAssignmentInfo().remove(shiftAssignment);
+        scoreDirector.afterVariableChanged(employee, "assignmentInfo");
     }
 }
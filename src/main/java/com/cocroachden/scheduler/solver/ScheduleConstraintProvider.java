@@ -1,23 +1,58 @@
 package com.cocroachden.scheduler.solver;
 
-import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.score.stream.*;
+import ai.timefold.solver.core.api.score.stream.bi.BiConstraintStream;
+import ai.timefold.solver.core.api.score.stream.common.LoadBalance;
 import ai.timefold.solver.core.api.score.stream.common.SequenceChain;
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
 import org.springframework.lang.NonNull;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 import java.time.DayOfWeek;
-import java.time.temporal.WeekFields;
-import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class ScheduleConstraintProvider implements ConstraintProvider {
 
     public static final int MAX_SHIFTS_PER_WEEK = 5;
     public static final int MAX_CONSECUTIVE_SHIFTS = 3;
+    public static final String UNCOVERED_SHIFT = "Uncovered shift";
+    public static final String FULL_WORK_WEEKENDS = "Reward full work weekends";
+    public static final String UNEQUAL_SHIFT_TYPE_DISTRIBUTION = "Penalize unequal shift type distribution";
+    public static final String UNEQUAL_WEEKEND_DISTRIBUTION = "Penalize unequal weekend distribution";
+    /**
+     * Default weight of an uncovered shift, heavier than any other hard rule so that every shift gets an employee.
+     * Solving with {@link #OVER_CONSTRAINED_UNCOVERED_SHIFT_WEIGHT} lets shifts stay uncovered instead.
+     */
+    public static final HardMediumSoftScore UNCOVERED_SHIFT_WEIGHT = HardMediumSoftScore.ofHard(1000);
+    public static final HardMediumSoftScore OVER_CONSTRAINED_UNCOVERED_SHIFT_WEIGHT = HardMediumSoftScore.ONE_MEDIUM;
+    /**
+     * Decimal places of the weekend unfairness kept in the penalty.
+     */
+    private static final int UNFAIRNESS_SCALE = 1;
+    /**
+     * Precision of {@link LoadBalance#unfairness()}.
+     */
+    private static final MathContext UNFAIRNESS_MATH_CONTEXT = new MathContext(6, RoundingMode.HALF_EVEN);
+
+    /*
+     * Bavet shares a node between constraints only when the stream is built from the same function instances.
+     * The shared parts of the streams below are therefore built from these constants, so that every move updates
+     * each sequence chain and availability lookup once, no matter how many constraints read it.
+     */
+    private static final Predicate<ShiftAssignment> IS_ASSIGNED = shiftAssignment -> shiftAssignment.getEmployee() != null;
+    private static final Function<ShiftAssignment, Employee> EMPLOYEE = ShiftAssignment::getEmployee;
+    private static final UniConstraintCollector<ShiftAssignment, ?, SequenceChain<ShiftAssignment, Integer>> DAY_SEQUENCES =
+            ConstraintCollectors.toConsecutiveSequences(ShiftAssignment::getDayIndex);
 
     @Override
     public @NonNull Constraint[] defineConstraints(@NonNull ConstraintFactory factory) {
         return new Constraint[]{
                 requireOnlyOneShiftPerDay(factory),
+                penalizeUncoveredShift(factory),
                 requireNoShiftWhenUnavailable(factory),
                 requireNoDayShiftsAfterNightShift(factory),
                 requireShiftWhenRequired(factory),
@@ -35,104 +70,93 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
     }
 
     Constraint requireOnlyOneShiftPerDay(ConstraintFactory constraintFactory) {
-        return constraintFactory
-                .forEachUniquePair(
-                        ShiftAssignment.class,
-                        Joiners.equal(ShiftAssignment::getEmployee),
-                        Joiners.equal(ShiftAssignment::getDate)
-                ).penalize(HardSoftScore.ofHard(100))
-                .asConstraint("One shift per day");
+        return constraintFactory.forEach(ShiftAssignment.class)
+                                .groupBy(
+                                        EMPLOYEE,
+                                        ShiftAssignment::getDay,
+                                        ConstraintCollectors.count()
+                                ).filter((employee, day, count) -> count > 1)
+                                .penalize(HardMediumSoftScore.ofHard(100), (employee, day, count) -> count * (count - 1) / 2)
+                                .asConstraint("One shift per day");
+    }
+
+    Constraint penalizeUncoveredShift(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEachIncludingUnassigned(ShiftAssignment.class)
+                                .filter(IS_ASSIGNED.negate())
+                                .penalize(UNCOVERED_SHIFT_WEIGHT)
+                                .asConstraint(UNCOVERED_SHIFT);
     }
 
     Constraint requireNoShiftWhenUnavailable(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEach(Availability.class)
-                                .filter(availability -> availability.type().equals(AvailabilityType.UNAVAILABLE))
-                                .ifExists(
-                                        ShiftAssignment.class,
-                                        Joiners.equal(Availability::date, ShiftAssignment::getDate),
-                                        Joiners.equal(Availability::employee, ShiftAssignment::getEmployee),
-                                        Joiners.equal(Availability::shiftType, ShiftAssignment::getShiftType)
-                                ).penalize(HardSoftScore.ofHard(50))
-                                .asConstraint("No shifts when unavailable");
+        return requestedShifts(constraintFactory)
+                .filter((shiftAssignment, matrix) -> matrix.is(shiftAssignment, AvailabilityType.UNAVAILABLE))
+                .penalize(HardMediumSoftScore.ofHard(50))
+                .asConstraint("No shifts when unavailable");
     }
 
+    /**
+     * The matrix counts the required shifts of every employee, so only the assigned shifts meeting a request are
+     * counted here, per employee, and each required shift short of that count is penalized.
+     */
     Constraint requireShiftWhenRequired(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEach(Availability.class)
-                                .filter(availability -> availability.type().equals(AvailabilityType.REQUIRED))
-                                .ifNotExists(
-                                        ShiftAssignment.class,
-                                        Joiners.equal(Availability::employee, ShiftAssignment::getEmployee),
-                                        Joiners.equal(Availability::date, ShiftAssignment::getDate),
-                                        Joiners.equal(Availability::shiftType, ShiftAssignment::getShiftType)
-                                ).groupBy(Availability::employee, ConstraintCollectors.count())
-                                .penalize(HardSoftScore.ONE_HARD, (employee, count) -> count)
-                                .asConstraint("Shift when required");
+        return requestedShifts(constraintFactory)
+                .filter((shiftAssignment, matrix) -> matrix.is(shiftAssignment, AvailabilityType.REQUIRED))
+                .groupBy(
+                        (shiftAssignment, matrix) -> shiftAssignment.getEmployee(),
+                        ConstraintCollectors.countDistinct((shiftAssignment, matrix) -> shiftAssignment.getSlotIndex())
+                ).complement(Employee.class, employee -> 0)
+                .join(AvailabilityMatrix.class)
+                .filter((employee, requiredShifts, matrix) -> matrix.requiredCount(employee) > requiredShifts)
+                .penalize(HardMediumSoftScore.ONE_HARD, (employee, requiredShifts, matrix) -> matrix.requiredCount(employee) - requiredShifts)
+                .asConstraint("Shift when required");
     }
 
     Constraint penalizeAssignedWhenUndesirable(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEach(Availability.class)
-                                .filter(availability -> availability.type().equals(AvailabilityType.UNDESIRED))
-                                .ifExists(
-                                        ShiftAssignment.class,
-                                        Joiners.equal(Availability::date, ShiftAssignment::getDate),
-                                        Joiners.equal(Availability::employee, ShiftAssignment::getEmployee),
-                                        Joiners.equal(Availability::shiftType, ShiftAssignment::getShiftType)
-                                ).penalize(HardSoftScore.ONE_SOFT)
-                                .asConstraint("Penalize undesirable shifts");
+        return requestedShifts(constraintFactory)
+                .filter((shiftAssignment, matrix) -> matrix.is(shiftAssignment, AvailabilityType.UNDESIRED))
+                .penalize(HardMediumSoftScore.ONE_SOFT)
+                .asConstraint("Penalize undesirable shifts");
     }
 
     Constraint rewardAssignedWhenDesirable(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEach(Availability.class)
-                                .filter(availability -> availability.type().equals(AvailabilityType.DESIRED))
-                                .ifExists(
-                                        ShiftAssignment.class,
-                                        Joiners.equal(Availability::date, ShiftAssignment::getDate),
-                                        Joiners.equal(Availability::employee, ShiftAssignment::getEmployee),
-                                        Joiners.equal(Availability::shiftType, ShiftAssignment::getShiftType)
-                                ).reward(HardSoftScore.ONE_SOFT)
-                                .asConstraint("Reward desirable shifts");
+        return requestedShifts(constraintFactory)
+                .filter((shiftAssignment, matrix) -> matrix.is(shiftAssignment, AvailabilityType.DESIRED))
+                .reward(HardMediumSoftScore.ONE_SOFT)
+                .asConstraint("Reward desirable shifts");
     }
 
     Constraint penalizeTooManyConsecutiveShifts(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEach(ShiftAssignment.class)
-                                .filter(shiftAssignment -> shiftAssignment.getEmployee() != null)
-                                .groupBy(
-                                        ShiftAssignment::getEmployee,
-                                        ConstraintCollectors.toConsecutiveSequences(assignment -> assignment.getDate().getDayOfYear())
-                                ).flattenLast(SequenceChain::getConsecutiveSequences)
-                                .filter((employee, shiftAssignmentIntegerSequence) -> shiftAssignmentIntegerSequence.getCount() > MAX_CONSECUTIVE_SHIFTS)
-                                .penalize(HardSoftScore.ONE_HARD, (employee, shiftAssignmentIntegerSequence) -> shiftAssignmentIntegerSequence.getCount())
-                                .asConstraint("Penalize too many consecutive shifts");
+        return shiftSequencesPerEmployee(constraintFactory)
+                .flattenLast(SequenceChain::getConsecutiveSequences)
+                .filter((employee, shiftAssignmentIntegerSequence) -> shiftAssignmentIntegerSequence.getCount() > MAX_CONSECUTIVE_SHIFTS)
+                .penalize(HardMediumSoftScore.ONE_HARD, (employee, shiftAssignmentIntegerSequence) -> shiftAssignmentIntegerSequence.getCount())
+                .asConstraint("Penalize too many consecutive shifts");
     }
 
     Constraint penalizeSingleDayOff(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEach(ShiftAssignment.class)
-                                .filter(shiftAssignment -> shiftAssignment.getEmployee() != null)
-                                .groupBy(
-                                        ShiftAssignment::getEmployee,
-                                        ConstraintCollectors.toConsecutiveSequences(assignment -> assignment.getDate().getDayOfYear())
-                                ).flattenLast(SequenceChain::getBreaks)
-                                .filter((employee, shiftAssignmentIntegerBreak) -> shiftAssignmentIntegerBreak.getLength() == 2)
-                                .penalize(HardSoftScore.ONE_SOFT)
-                                .asConstraint("Penalize too short off time");
+        return shiftSequencesPerEmployee(constraintFactory)
+                .flattenLast(SequenceChain::getBreaks)
+                .filter((employee, shiftAssignmentIntegerBreak) -> shiftAssignmentIntegerBreak.getLength() == 2)
+                .penalize(HardMediumSoftScore.ONE_SOFT)
+                .asConstraint("Penalize too short off time");
     }
 
     Constraint requireNoDayShiftsAfterNightShift(ConstraintFactory constraintFactory) {
-        return constraintFactory
-                .forEachUniquePair(
-                        ShiftAssignment.class,
-                        Joiners.equal(ShiftAssignment::getEmployee),
-                        Joiners.lessThan(ShiftAssignment::getDate)
-                ).filter((first, second) -> first.getDate().plusDays(1).equals(second.getDate()))
-                .filter((first, second) -> first.getShiftType() == ShiftType.NIGHT && second.getShiftType() == ShiftType.DAY)
-                .penalize(HardSoftScore.ofHard(100))
-                .asConstraint("No day shifts after night shifts");
+        return constraintFactory.forEach(ShiftAssignment.class)
+                                .filter(shiftAssignment -> shiftAssignment.getShiftType() == ShiftType.NIGHT)
+                                .join(
+                                        constraintFactory.forEach(ShiftAssignment.class)
+                                                         .filter(shiftAssignment -> shiftAssignment.getShiftType() == ShiftType.DAY),
+                                        Joiners.equal(ShiftAssignment::getEmployee),
+                                        Joiners.equal(ShiftAssignment::getNextDayIndex, ShiftAssignment::getDayIndex)
+                                ).penalize(HardMediumSoftScore.ofHard(100))
+                                .asConstraint("No day shifts after night shifts");
     }
 
     Constraint penalizeLessShiftsThanMinimum(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Employee.class)
                                 .filter(e -> e.getAssignmentInfo().getTotalCount() < e.getMinimumShiftCount())
-                                .penalize(HardSoftScore.ONE_HARD, employee -> {
+                                .penalize(HardMediumSoftScore.ONE_HARD, employee -> {
                                     var deviation = employee.getMinimumShiftCount() - employee.getAssignmentInfo().getTotalCount();
                                     if (deviation == 1) {
                                         deviation++;
@@ -142,25 +166,25 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
     }
 
     Constraint rewardFullWorkWeekends(ConstraintFactory constraintFactory) {
-        return constraintFactory
-                .forEachUniquePair(
-                        ShiftAssignment.class,
-                        Joiners.equal(ShiftAssignment::getEmployee),
-                        Joiners.filtering((a, b) -> a.getDate().plusDays(1).equals(b.getDate())
-                                && a.getDate().getDayOfWeek() == DayOfWeek.SATURDAY)
-
-                ).reward(HardSoftScore.ofSoft(50))
-                .asConstraint("Reward full work weekends");
+        return constraintFactory.forEach(ShiftAssignment.class)
+                                .filter(shiftAssignment -> shiftAssignment.getDay().dayOfWeek() == DayOfWeek.SATURDAY)
+                                .join(
+                                        constraintFactory.forEach(ShiftAssignment.class)
+                                                         .filter(shiftAssignment -> shiftAssignment.getDay().dayOfWeek() == DayOfWeek.SUNDAY),
+                                        Joiners.equal(ShiftAssignment::getEmployee),
+                                        Joiners.equal(shiftAssignment -> shiftAssignment.getDay().weekendId())
+                                ).reward(HardMediumSoftScore.ofSoft(50))
+                                .asConstraint(FULL_WORK_WEEKENDS);
     }
 
     Constraint penalizeTooManyShiftCountPerWeek(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(ShiftAssignment.class)
                                 .groupBy(
-                                        ShiftAssignment::getEmployee,
-                                        shiftAssignment -> shiftAssignment.getDate().get(WeekFields.of(Locale.GERMANY).weekOfYear()),
+                                        EMPLOYEE,
+                                        shiftAssignment -> shiftAssignment.getDay().week(),
                                         ConstraintCollectors.count()
                                 ).filter((employee, week, count) -> count > MAX_SHIFTS_PER_WEEK)
-                                .penalize(HardSoftScore.ONE_HARD, (employee, week, count) -> count)
+                                .penalize(HardMediumSoftScore.ONE_HARD, (employee, week, count) -> count)
                                 .asConstraint("Max shift count per week");
     }
 
@@ -168,7 +192,7 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
         return constraintFactory.forEach(Employee.class)
                                 .filter(e -> e.getMinimumShiftCount() - e.getAssignmentInfo().getTotalCount() != 0)
                                 .penalize(
-                                        HardSoftScore.ONE_SOFT,
+                                        HardMediumSoftScore.ONE_SOFT,
                                         (employee) -> {
                                             var deviation = employee.getMinimumShiftCount() - employee.getAssignmentInfo().getTotalCount();
                                             return deviation * deviation;
@@ -178,31 +202,60 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
 
     Constraint penalizeNightAndDayShiftDisbalance(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Employee.class)
-                                .map(
-                                        employee -> employee,
+                                .filter(employee -> employee.getAssignmentInfo().getDayShifts() != employee.getAssignmentInfo().getNightShifts())
+                                .penalize(
+                                        HardMediumSoftScore.ONE_SOFT,
                                         employee -> {
-                                            var days = employee.getAssignmentInfo().getDayShifts();
-                                            var nights = employee.getAssignmentInfo().getNightShifts();
-                                            return Math.abs(days - nights);
+                                            var difference = employee.getAssignmentInfo().getDayShifts() - employee.getAssignmentInfo().getNightShifts();
+                                            return difference * difference;
                                         }
-                                ).filter((employee, difference) -> difference > 0)
-                                .penalize(HardSoftScore.ONE_SOFT, (employee, difference) -> (int) Math.pow(difference, 2))
-                                .asConstraint("Penalize unequal shift type distribution");
+                                ).asConstraint(UNEQUAL_SHIFT_TYPE_DISTRIBUTION);
     }
 
+    /**
+     * Fairness over the whole staff. The load balance collector keeps the sum and the squared sum of the weekend loads
+     * up to date, so a move only touches the changed employee's load and the penalty is read from
+     * {@link LoadBalance#unfairness()} without going over the staff again.
+     */
     Constraint penalizeUnequalWeekendDistribution(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Employee.class)
-                                .groupBy(ConstraintCollectors.average(e -> e.getAssignmentInfo().getWeekendShifts()))
-                                .join(Employee.class)
-                                .filter((average, employee) -> employee.getAssignmentInfo().getWeekendShifts() - (int) Math.round(average) != 0)
+                                .groupBy(ConstraintCollectors.loadBalance(
+                                        employee -> employee,
+                                        employee -> employee.getAssignmentInfo().getWeekendShifts()
+                                )).filter(weekendLoad -> weekendLoad.unfairness().signum() > 0)
                                 .penalize(
-                                        HardSoftScore.ONE_SOFT,
-                                        (average, employee) -> {
-                                            var deviation = (int) Math.abs(average - employee.getAssignmentInfo().getWeekendShifts());
-                                            return (int) Math.pow(deviation, 4);
-                                        }
-                                ).asConstraint("Penalize unequal weekend distribution");
+                                        HardMediumSoftScore.ONE_SOFT,
+                                        weekendLoad -> weekendUnfairness(weekendLoad.unfairness())
+                                ).asConstraint(UNEQUAL_WEEKEND_DISTRIBUTION);
     }
-}
 
+    /**
+     * @return the unfairness times {@link #UNFAIRNESS_SCALE}, rounded down
+     */
+    private static int weekendUnfairness(BigDecimal unfairness) {
+        return unfairness.movePointRight(UNFAIRNESS_SCALE).intValue();
+    }
+
+    /**
+     * {@link LoadBalance#unfairness()} of the weekend loads from their count, sum and squared sum, evaluated the same
+     * way the collector does, so that the incremental score calculator arrives at exactly the same penalty.
+     */
+    static int weekendUnfairness(long count, long sum, long squaredSum) {
+        if (count == 0) {
+            return 0;
+        }
+        var squaredDeviation = (double) squaredSum - (double) ( sum * sum ) / count;
+        return weekendUnfairness(BigDecimal.valueOf(squaredDeviation).sqrt(UNFAIRNESS_MATH_CONTEXT));
+    }
 
+    private static BiConstraintStream<Employee, SequenceChain<ShiftAssignment, Integer>> shiftSequencesPerEmployee(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEach(ShiftAssignment.class)
+                                .filter(IS_ASSIGNED)
+                                .groupBy(EMPLOYEE, DAY_SEQUENCES);
+    }
+
+    private static BiConstraintStream<ShiftAssignment, AvailabilityMatrix> requestedShifts(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEach(ShiftAssignment.class)
+                                .join(AvailabilityMatrix.class);
+    }
+}
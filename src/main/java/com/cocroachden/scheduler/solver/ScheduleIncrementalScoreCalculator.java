@@ -0,0 +1,324 @@
+package com.cocroachden.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.score.calculator.IncrementalScoreCalculator;
+import org.jspecify.annotations.NonNull;
+
+import java.time.DayOfWeek;
+
+/**
+ * Hand written alternative to {@link ScheduleConstraintProvider}. Reproduces all of its rules on primitive
+ * per-employee and per-day arrays, every change of {@link ShiftAssignment#getEmployee()} is applied as a delta
+ * which only looks at the changed day, its neighbours and the changed employee. The constraint weight overrides of
+ * the solution are read for the uncovered shifts, the full work weekends and both fairness rules.
+ */
+public class ScheduleIncrementalScoreCalculator implements IncrementalScoreCalculator<EmployeeSchedule, HardMediumSoftScore> {
+
+    private static final int ONE_SHIFT_PER_DAY_WEIGHT = 100;
+    private static final int DAY_AFTER_NIGHT_WEIGHT = 100;
+    private static final int UNAVAILABLE_WEIGHT = 50;
+    private static final HardMediumSoftScore FULL_WEEKEND_WEIGHT = HardMediumSoftScore.ofSoft(50);
+    private static final int SHIFT_TYPE_COUNT = ShiftType.values().length;
+
+    private AvailabilityMatrix availabilityMatrix;
+    private Day[] days;
+    private int dayCount;
+    private int weekCount;
+    private int employeeCount;
+
+    /*
+     * Indexed by employee index * dayCount + day index.
+     */
+    private int[] shifts;
+    private int[] nightShifts;
+    private int[] dayShifts;
+    /*
+     * Indexed by (employee index * dayCount + day index) * SHIFT_TYPE_COUNT + shift type ordinal.
+     */
+    private int[] slotShifts;
+    private int[] requiredAvailabilities;
+    /*
+     * Indexed by employee index * weekCount + week.
+     */
+    private int[] weekShifts;
+    /*
+     * Indexed by employee index.
+     */
+    private int[] minimumShiftCounts;
+    private int[] employeeNightShifts;
+    private int[] employeeDayShifts;
+    private int[] employeeWeekendShifts;
+
+    private HardMediumSoftScore uncoveredShiftWeight;
+    private HardMediumSoftScore fullWeekendWeight;
+    private HardMediumSoftScore shiftTypeImbalanceWeight;
+    private HardMediumSoftScore weekendUnfairnessWeight;
+    private int uncoveredShifts;
+    private int fullWeekends;
+    private int shiftTypeImbalance;
+    private long weekendLoadSum;
+    private long weekendLoadSquaredSum;
+    private int hardScore;
+    private int softScore;
+
+    @Override
+    public void resetWorkingSolution(@NonNull final EmployeeSchedule workingSolution) {
+        availabilityMatrix = workingSolution.getAvailabilityMatrix();
+        dayCount = workingSolution.getDays().stream().mapToInt(Day::index).max().orElse(-1) + 1;
+        weekCount = workingSolution.getDays().stream().mapToInt(Day::week).max().orElse(-1) + 1;
+        days = new Day[dayCount];
+        workingSolution.getDays().forEach(day -> days[day.index()] = day);
+        var employees = workingSolution.getEmployees();
+        employeeCount = employees.size();
+        var employeeCapacity = employees.stream().mapToInt(Employee::getIndex).max().orElse(-1) + 1;
+        shifts = new int[employeeCapacity * dayCount];
+        nightShifts = new int[employeeCapacity * dayCount];
+        dayShifts = new int[employeeCapacity * dayCount];
+        slotShifts = new int[employeeCapacity * dayCount * SHIFT_TYPE_COUNT];
+        requiredAvailabilities = new int[employeeCapacity * dayCount * SHIFT_TYPE_COUNT];
+        weekShifts = new int[employeeCapacity * weekCount];
+        minimumShiftCounts = new int[employeeCapacity];
+        employeeNightShifts = new int[employeeCapacity];
+        employeeDayShifts = new int[employeeCapacity];
+        employeeWeekendShifts = new int[employeeCapacity];
+        uncoveredShiftWeight = constraintWeight(workingSolution, ScheduleConstraintProvider.UNCOVERED_SHIFT, ScheduleConstraintProvider.UNCOVERED_SHIFT_WEIGHT);
+        fullWeekendWeight = constraintWeight(workingSolution, ScheduleConstraintProvider.FULL_WORK_WEEKENDS, FULL_WEEKEND_WEIGHT);
+        shiftTypeImbalanceWeight = constraintWeight(workingSolution, ScheduleConstraintProvider.UNEQUAL_SHIFT_TYPE_DISTRIBUTION, HardMediumSoftScore.ONE_SOFT);
+        weekendUnfairnessWeight = constraintWeight(workingSolution, ScheduleConstraintProvider.UNEQUAL_WEEKEND_DISTRIBUTION, HardMediumSoftScore.ONE_SOFT);
+        uncoveredShifts = 0;
+        fullWeekends = 0;
+        shiftTypeImbalance = 0;
+        weekendLoadSum = 0;
+        weekendLoadSquaredSum = 0;
+        hardScore = 0;
+        softScore = 0;
+        workingSolution.getAvailabilities().stream()
+                       .filter(availability -> availability.type() == AvailabilityType.REQUIRED)
+                       .forEach(availability -> {
+                           requiredAvailabilities[slot(availability.employee().getIndex(), availability.day().index(), availability.shiftType())]++;
+                           hardScore--;
+                       });
+        employees.forEach(employee -> {
+            minimumShiftCounts[employee.getIndex()] = employee.getMinimumShiftCount();
+            applyEmployeeScore(employee.getIndex(), 1);
+        });
+        workingSolution.getShiftAssignments().forEach(this::insert);
+    }
+
+    @Override
+    public void beforeEntityAdded(@NonNull final Object entity) {
+
+    }
+
+    @Override
+    public void afterEntityAdded(@NonNull final Object entity) {
+        if (entity instanceof ShiftAssignment shiftAssignment) {
+            insert(shiftAssignment);
+        }
+    }
+
+    @Override
+    public void beforeVariableChanged(@NonNull final Object entity, @NonNull final String variableName) {
+        if (entity instanceof ShiftAssignment shiftAssignment) {
+            retract(shiftAssignment);
+        }
+    }
+
+    @Override
+    public void afterVariableChanged(@NonNull final Object entity, @NonNull final String variableName) {
+        if (entity instanceof ShiftAssignment shiftAssignment) {
+            insert(shiftAssignment);
+        }
+    }
+
+    @Override
+    public void beforeEntityRemoved(@NonNull final Object entity) {
+        if (entity instanceof ShiftAssignment shiftAssignment) {
+            retract(shiftAssignment);
+        }
+    }
+
+    @Override
+    public void afterEntityRemoved(@NonNull final Object entity) {
+
+    }
+
+    @Override
+    public @NonNull HardMediumSoftScore calculateScore() {
+        // the unfairness the load balance collector of the constraint streams reports, from the running sums
+        var weekendUnfairness = ScheduleConstraintProvider.weekendUnfairness(employeeCount, weekendLoadSum, weekendLoadSquaredSum);
+        return HardMediumSoftScore.of(hardScore, 0, softScore)
+                                  .subtract(uncoveredShiftWeight.multiply(uncoveredShifts))
+                                  .add(fullWeekendWeight.multiply(fullWeekends))
+                                  .subtract(shiftTypeImbalanceWeight.multiply(shiftTypeImbalance))
+                                  .subtract(weekendUnfairnessWeight.multiply(weekendUnfairness));
+    }
+
+    /**
+     * @return weight of the constraint from the overrides of the solution, the default if it is not overridden
+     */
+    private static HardMediumSoftScore constraintWeight(EmployeeSchedule workingSolution, String constraintName, HardMediumSoftScore defaultWeight) {
+        var weight = workingSolution.getConstraintWeightOverrides().getConstraintWeight(constraintName);
+        return weight == null ? defaultWeight : weight;
+    }
+
+    private void insert(ShiftAssignment shiftAssignment) {
+        apply(shiftAssignment, 1);
+    }
+
+    private void retract(ShiftAssignment shiftAssignment) {
+        apply(shiftAssignment, -1);
+    }
+
+    private void apply(ShiftAssignment shiftAssignment, int delta) {
+        if (shiftAssignment.getEmployee() == null) {
+            uncoveredShifts += delta;
+            return;
+        }
+        var employee = shiftAssignment.getEmployee().getIndex();
+        var day = shiftAssignment.getDay();
+        var shiftType = shiftAssignment.getShiftType();
+        var offset = employee * dayCount + day.index();
+        var slot = slot(employee, day.index(), shiftType);
+
+        if (delta < 0) {
+            applyRequestScore(shiftAssignment, -1);
+        }
+        applyEmployeeScore(employee, -1);
+        applyDayScore(employee, day.index(), -1);
+        applySlotScore(slot, -1);
+
+        shifts[offset] += delta;
+        slotShifts[slot] += delta;
+        weekShifts[employee * weekCount + day.week()] += delta;
+        if (shiftType == ShiftType.NIGHT) {
+            nightShifts[offset] += delta;
+            employeeNightShifts[employee] += delta;
+        } else {
+            dayShifts[offset] += delta;
+            employeeDayShifts[employee] += delta;
+        }
+        if (day.weekend()) {
+            employeeWeekendShifts[employee] += delta;
+        }
+
+        applyEmployeeScore(employee, 1);
+        applyDayScore(employee, day.index(), 1);
+        applySlotScore(slot, 1);
+        if (delta > 0) {
+            applyRequestScore(shiftAssignment, 1);
+        }
+    }
+
+    private void applyRequestScore(ShiftAssignment shiftAssignment, int sign) {
+        var type = availabilityMatrix.get(shiftAssignment);
+        if (type == null) {
+            return;
+        }
+        switch (type) {
+            case UNAVAILABLE -> hardScore -= sign * UNAVAILABLE_WEIGHT;
+            case UNDESIRED -> softScore -= sign;
+            case DESIRED -> softScore += sign;
+            case REQUIRED -> {
+            }
+        }
+    }
+
+    private void applySlotScore(int slot, int sign) {
+        if (slotShifts[slot] == 0) {
+            hardScore -= sign * requiredAvailabilities[slot];
+        }
+    }
+
+    private void applyEmployeeScore(int employee, int sign) {
+        var total = employeeNightShifts[employee] + employeeDayShifts[employee];
+        var deviation = minimumShiftCounts[employee] - total;
+        if (deviation > 0) {
+            var hardDeviation = deviation == 1 ? 2 : deviation;
+            hardScore -= sign * hardDeviation * hardDeviation;
+        }
+        softScore -= sign * deviation * deviation;
+        var imbalance = employeeDayShifts[employee] - employeeNightShifts[employee];
+        shiftTypeImbalance += sign * imbalance * imbalance;
+        var weekendShifts = employeeWeekendShifts[employee];
+        weekendLoadSum += (long) sign * weekendShifts;
+        weekendLoadSquaredSum += (long) sign * weekendShifts * weekendShifts;
+    }
+
+    /**
+     * Applies every rule whose outcome depends on the shifts of the employee on the given day or on its direct
+     * neighbours. Called with -1 before and with +1 after the count of the day changes.
+     */
+    private void applyDayScore(int employee, int day, int sign) {
+        var offset = employee * dayCount + day;
+        var count = shifts[offset];
+        hardScore -= sign * ONE_SHIFT_PER_DAY_WEIGHT * count * ( count - 1 ) / 2;
+        if (day > 0) {
+            hardScore -= sign * DAY_AFTER_NIGHT_WEIGHT * nightShifts[offset - 1] * dayShifts[offset];
+        }
+        if (day + 1 < dayCount) {
+            hardScore -= sign * DAY_AFTER_NIGHT_WEIGHT * nightShifts[offset] * dayShifts[offset + 1];
+        }
+        var dayOfWeek = days[day].dayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY && day + 1 < dayCount) {
+            fullWeekends += sign * shifts[offset] * shifts[offset + 1];
+        } else if (dayOfWeek == DayOfWeek.SUNDAY && day > 0) {
+            fullWeekends += sign * shifts[offset - 1] * shifts[offset];
+        }
+        var weekShiftCount = weekShifts[employee * weekCount + days[day].week()];
+        if (weekShiftCount > ScheduleConstraintProvider.MAX_SHIFTS_PER_WEEK) {
+            hardScore -= sign * weekShiftCount;
+        }
+        hardScore -= sign * consecutiveShiftsPenalty(employee, day);
+        softScore -= sign * singleDaysOff(employee, day);
+    }
+
+    /**
+     * Penalty of all runs of consecutive working days which touch the given day or its neighbours.
+     */
+    private int consecutiveShiftsPenalty(int employee, int day) {
+        var base = employee * dayCount;
+        var from = Math.max(0, day - 1);
+        var to = Math.min(dayCount - 1, day + 1);
+        if (shifts[base + from] > 0) {
+            while (from > 0 && shifts[base + from - 1] > 0) {
+                from--;
+            }
+        }
+        var penalty = 0;
+        var current = from;
+        while (current <= to) {
+            if (shifts[base + current] == 0) {
+                current++;
+                continue;
+            }
+            var count = 0;
+            while (current < dayCount && shifts[base + current] > 0) {
+                count += shifts[base + current];
+                current++;
+            }
+            if (count > ScheduleConstraintProvider.MAX_CONSECUTIVE_SHIFTS) {
+                penalty += count;
+            }
+        }
+        return penalty;
+    }
+
+    /**
+     * Count of single free days between two working days among the given day and its neighbours.
+     */
+    private int singleDaysOff(int employee, int day) {
+        var base = employee * dayCount;
+        var count = 0;
+        for (int current = Math.max(1, day - 1); current <= Math.min(dayCount - 2, day + 1); current++) {
+            if (shifts[base + current] == 0 && shifts[base + current - 1] > 0 && shifts[base + current + 1] > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int slot(int employee, int day, ShiftType shiftType) {
+        return ( employee * dayCount + day ) * SHIFT_TYPE_COUNT + shiftType.ordinal();
+    }
+}
@@ -0,0 +1,12 @@
+package com.cocroachden.scheduler.solver;
+
+public enum ScoreEngine {
+    /**
+     * {@link ScheduleConstraintProvider} evaluated by the Bavet constraint streams engine.
+     */
+    CONSTRAINT_STREAMS,
+    /**
+     * Hand written {@link ScheduleIncrementalScoreCalculator}.
+     */
+    INCREMENTAL
+}
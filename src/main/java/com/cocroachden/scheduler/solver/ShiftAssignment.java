@@ -1,7 +1,9 @@
 package com.cocroachden.scheduler.solver;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.entity.PlanningPin;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
 import com.cocroachden.scheduler.domain.ShiftAssignmentId;
 import lombok.Getter;
@@ -9,31 +11,74 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 
 import java.time.LocalDate;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
 
 @PlanningEntity
 @Accessors(chain = true)
 @Setter
 @Getter
 public class ShiftAssignment {
+    public static final String AVAILABLE_EMPLOYEES = "availableEmployees";
+    private static final int SHIFT_TYPE_COUNT = ShiftType.values().length;
+
     //https://docs.timefold.ai/timefold-solver/latest/design-patterns/design-patterns
     @PlanningId
+    private int index;
     private ShiftAssignmentId id;
-    @PlanningVariable
+    /**
+     * Null when the shift is uncovered, see {@link ScheduleConstraintProvider#UNCOVERED_SHIFT}.
+     */
+    @PlanningVariable(valueRangeProviderRefs = AVAILABLE_EMPLOYEES, allowsUnassigned = true)
     private Employee employee;
-    private LocalDate date;
+    private Day day;
     private ShiftType shiftType;
+    /**
+     * Employees who have not marked this shift as unavailable, see {@link EmployeeSchedule#initializeFacts()}.
+     */
+    @ValueRangeProvider(id = AVAILABLE_EMPLOYEES)
+    private List<Employee> availableEmployees = new ArrayList<>();
+    /**
+     * Set for shifts pre-assigned from a REQUIRED request, the solver never changes their employee.
+     */
+    @PlanningPin
+    private boolean pinned;
+
+    public LocalDate getDate() {
+        return day.date();
+    }
+
+    public int getDayIndex() {
+        return day.index();
+    }
+
+    public int getNextDayIndex() {
+        return day.index() + 1;
+    }
+
+    /**
+     * @return number of the day and shift type, equal for the assignments of the same slot
+     */
+    public int getSlotIndex() {
+        return day.index() * SHIFT_TYPE_COUNT + shiftType.ordinal();
+    }
+
+    /**
+     * Assignments of the same day and shift type are interchangeable, exchanging their employees gives the same
+     * schedule.
+     */
+    public boolean isSameSlotAs(ShiftAssignment other) {
+        return day.equals(other.day) && shiftType == other.shiftType;
+    }
 
     @Override
     public boolean equals(final Object o) {
-        if (this == o) return true;
-        if (!( o instanceof final ShiftAssignment that )) return false;
-        return Objects.equals(id, that.id);
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(id);
+        return index;
     }
 
     @Override
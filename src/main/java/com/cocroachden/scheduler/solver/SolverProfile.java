@@ -0,0 +1,66 @@
+package com.cocroachden.scheduler.solver;
+
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import com.cocroachden.scheduler.solver.move.RuinRecreateMoveIteratorFactory;
+import com.cocroachden.scheduler.solver.move.WindowRepairMoveIteratorFactory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Named trade-offs between solving time and schedule quality, applied per job on top of solverConfig.xml.
+ * Disabled constraints are switched off through the constraint weight overrides of the problem, which both
+ * score engines read.
+ */
+@Getter
+@AllArgsConstructor
+public enum SolverProfile {
+    /**
+     * A rough schedule in seconds: no fairness rules, none of the expensive large moves and no reproducibility checks.
+     */
+    PREVIEW(
+            EnvironmentMode.NON_REPRODUCIBLE,
+            0.1,
+            Set.of(RuinRecreateMoveIteratorFactory.class, WindowRepairMoveIteratorFactory.class),
+            Map.of(),
+            Set.of(
+                    ScheduleConstraintProvider.FULL_WORK_WEEKENDS,
+                    ScheduleConstraintProvider.UNEQUAL_SHIFT_TYPE_DISTRIBUTION,
+                    ScheduleConstraintProvider.UNEQUAL_WEEKEND_DISTRIBUTION
+            )
+    ),
+    /**
+     * solverConfig.xml as it is.
+     */
+    STANDARD(EnvironmentMode.NO_ASSERT, 1, Set.of(), Map.of(), Set.of()),
+    /**
+     * A polished schedule: four times the time budget, larger ruined blocks and repaired windows.
+     */
+    DEEP(
+            EnvironmentMode.NO_ASSERT,
+            4,
+            Set.of(),
+            Map.of(
+                    RuinRecreateMoveIteratorFactory.class, Map.of("ruinedBlockCount", "2"),
+                    WindowRepairMoveIteratorFactory.class, Map.of("windowDays", "5", "nodeLimit", "100000")
+            ),
+            Set.of()
+    );
+
+    private final EnvironmentMode environmentMode;
+    /**
+     * Multiplies the time budget of a job without an explicit deadline.
+     */
+    private final double timeBudgetFactor;
+    private final Set<Class<?>> disabledMoveIteratorFactories;
+    /**
+     * Custom properties of the move iterator factories, overriding the ones from solverConfig.xml.
+     */
+    private final Map<Class<?>, Map<String, String>> moveIteratorFactoryProperties;
+    /**
+     * Names of the {@link ScheduleConstraintProvider} constraints which are switched off.
+     */
+    private final Set<String> disabledConstraints;
+}
@@ -0,0 +1,55 @@
+package com.cocroachden.scheduler.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.cocroachden.scheduler.domain.EmployeeId;
+import com.cocroachden.scheduler.solver.Availability;
+import com.cocroachden.scheduler.solver.AvailabilityType;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftType;
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDate;
+
+/**
+ * Adds a request of an employee for a shift of a running solve, replacing the previous request for it. An employee
+ * who becomes unavailable is taken off the shift. A required shift is pinned the same way as when solving starts,
+ * the employee's shift of that date and type if there is one, otherwise an uncovered one, otherwise one which is
+ * not pinned yet.
+ */
+public record AddAvailability(
+        EmployeeId employeeId,
+        LocalDate date,
+        ShiftType shiftType,
+        AvailabilityType type
+) implements ProblemChange<EmployeeSchedule> {
+
+    @Override
+    public void doChange(@NonNull final EmployeeSchedule workingSolution, @NonNull final ProblemChangeDirector problemChangeDirector) {
+        var employee = ProblemChanges.employee(workingSolution, employeeId);
+        var day = ProblemChanges.day(workingSolution, date);
+        ProblemChanges.copyFactLists(workingSolution);
+        ProblemChanges.availability(workingSolution, employee, day, shiftType)
+                      .ifPresent(previous -> ProblemChanges.removeAvailability(workingSolution, problemChangeDirector, previous));
+        var availability = Availability.of(employee, day, shiftType, type).withIndex(ProblemChanges.nextAvailabilityIndex(workingSolution));
+        problemChangeDirector.addProblemFact(availability, workingSolution.getAvailabilities()::add);
+        ProblemChanges.updateAvailabilityMatrix(workingSolution, problemChangeDirector, employee, day, shiftType, type);
+        var shifts = ProblemChanges.shifts(workingSolution, day, shiftType);
+        // before assigning, an employee who was unavailable is not in the value range yet
+        ProblemChanges.refreshAvailableEmployees(workingSolution, problemChangeDirector, shifts);
+        var employeeShift = shifts.stream().filter(shift -> shift.getEmployee() == employee).findAny();
+        if (type == AvailabilityType.UNAVAILABLE) {
+            employeeShift.ifPresent(shift -> ProblemChanges.unassign(problemChangeDirector, shift));
+        } else if (type == AvailabilityType.REQUIRED) {
+            // an uncovered shift if there is one, otherwise the employee takes over a shift which is not pinned
+            var requiredShift = employeeShift.or(() -> shifts.stream().filter(shift -> shift.getEmployee() == null).findAny())
+                                             .or(() -> shifts.stream().filter(shift -> !shift.isPinned()).findAny());
+            requiredShift.ifPresent(shift -> {
+                if (shift.getEmployee() != employee) {
+                    problemChangeDirector.changeVariable(shift, "employee", s -> s.setEmployee(employee));
+                }
+                problemChangeDirector.changeProblemProperty(shift, s -> s.setPinned(true));
+            });
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cocroachden.scheduler.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.cocroachden.scheduler.domain.EmployeeId;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Adds an employee without any requests to a running solve, every shift can be assigned to them.
+ */
+public record AddEmployee(EmployeeId employeeId, int minimumShiftCount) implements ProblemChange<EmployeeSchedule> {
+
+    @Override
+    public void doChange(@NonNull final EmployeeSchedule workingSolution, @NonNull final ProblemChangeDirector problemChangeDirector) {
+        var exists = workingSolution.getEmployees().stream().anyMatch(employee -> employee.getEmployeeId().equals(employeeId));
+        if (exists) {
+            throw new IllegalArgumentException("Employee %s is already in the schedule.".formatted(employeeId.id()));
+        }
+        ProblemChanges.copyFactLists(workingSolution);
+        problemChangeDirector.addProblemFact(workingSolution.newEmployee(employeeId, minimumShiftCount), workingSolution.getEmployees()::add);
+        ProblemChanges.refreshAvailableEmployees(workingSolution, problemChangeDirector, List.copyOf(workingSolution.getShiftAssignments()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.cocroachden.scheduler.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.cocroachden.scheduler.domain.ShiftAssignmentId;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Sets the number of people needed for a shift type on a date of a running solve. Missing shift assignments are
+ * added uncovered. Surplus ones are removed uncovered first, then the assigned ones, pinned shift assignments are
+ * never removed, so the count may stay above the requested one.
+ */
+public record ChangeDemand(LocalDate date, ShiftType shiftType, int count) implements ProblemChange<EmployeeSchedule> {
+
+    public ChangeDemand {
+        if (count < 0) {
+            throw new IllegalArgumentException("Demand of %s %s can not be negative.".formatted(date, shiftType));
+        }
+    }
+
+    @Override
+    public void doChange(@NonNull final EmployeeSchedule workingSolution, @NonNull final ProblemChangeDirector problemChangeDirector) {
+        var day = ProblemChanges.day(workingSolution, date);
+        var shifts = ProblemChanges.shifts(workingSolution, day, shiftType);
+        if (count > shifts.size()) {
+            var ids = shifts.stream().map(ShiftAssignment::getId).collect(Collectors.toSet());
+            var next = shifts.size();
+            for (int i = shifts.size(); i < count; i++) {
+                ShiftAssignmentId id;
+                do {
+                    // same ids as the schedule reader, skipping the ones left by earlier changes
+                    id = new ShiftAssignmentId(day.date().toString() + shiftType.name().charAt(0) + next++);
+                } while (ids.contains(id));
+                var shift = new ShiftAssignment()
+                        .setIndex(ProblemChanges.nextShiftAssignmentIndex(workingSolution))
+                        .setId(id)
+                        .setDay(day)
+                        .setShiftType(shiftType);
+                shift.setAvailableEmployees(workingSolution.availableEmployees(shift));
+                problemChangeDirector.addEntity(shift, workingSolution.getShiftAssignments()::add);
+            }
+            return;
+        }
+        shifts.stream()
+              .filter(shift -> !shift.isPinned())
+              .sorted(Comparator.comparing(shift -> shift.getEmployee() != null))
+              .limit(shifts.size() - count)
+              .forEach(shift -> {
+                  ProblemChanges.unassign(problemChangeDirector, shift);
+                  problemChangeDirector.removeEntity(shift, workingSolution.getShiftAssignments()::remove);
+              });
+    }
+}
@@ -0,0 +1,122 @@
+package com.cocroachden.scheduler.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.cocroachden.scheduler.domain.EmployeeId;
+import com.cocroachden.scheduler.solver.Availability;
+import com.cocroachden.scheduler.solver.AvailabilityType;
+import com.cocroachden.scheduler.solver.AvailableEmployees;
+import com.cocroachden.scheduler.solver.Day;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lookups and edits shared by the problem changes. Everything works on the working solution of the solver and goes
+ * through the {@link ProblemChangeDirector}, so the score director and the shadow variables follow.
+ */
+final class ProblemChanges {
+
+    private ProblemChanges() {
+    }
+
+    static Employee employee(EmployeeSchedule schedule, EmployeeId employeeId) {
+        return schedule.getEmployees().stream()
+                       .filter(employee -> employee.getEmployeeId().equals(employeeId))
+                       .findAny()
+                       .orElseThrow(() -> new IllegalArgumentException("Employee %s is not in the schedule.".formatted(employeeId.id())));
+    }
+
+    static Day day(EmployeeSchedule schedule, LocalDate date) {
+        return schedule.getDays().stream()
+                       .filter(day -> day.date().equals(date))
+                       .findAny()
+                       .orElseThrow(() -> new IllegalArgumentException("Date %s is outside of the schedule.".formatted(date)));
+    }
+
+    static Optional<Availability> availability(EmployeeSchedule schedule, Employee employee, Day day, ShiftType shiftType) {
+        return schedule.getAvailabilities().stream()
+                       .filter(availability -> availability.employee() == employee)
+                       .filter(availability -> availability.day().equals(day) && availability.shiftType() == shiftType)
+                       .findAny();
+    }
+
+    static List<ShiftAssignment> shifts(EmployeeSchedule schedule, Day day, ShiftType shiftType) {
+        return schedule.getShiftAssignments().stream()
+                       .filter(shift -> shift.getDay().equals(day) && shift.getShiftType() == shiftType)
+                       .toList();
+    }
+
+    static int nextAvailabilityIndex(EmployeeSchedule schedule) {
+        return schedule.getAvailabilities().stream().mapToInt(Availability::index).max().orElse(-1) + 1;
+    }
+
+    static int nextShiftAssignmentIndex(EmployeeSchedule schedule) {
+        return schedule.getShiftAssignments().stream().mapToInt(ShiftAssignment::getIndex).max().orElse(-1) + 1;
+    }
+
+    /**
+     * Best solutions found before the change share the problem fact lists with the working solution, they are copied
+     * before being changed so that the published solutions stay as they were.
+     */
+    static void copyFactLists(EmployeeSchedule schedule) {
+        schedule.setEmployees(new ArrayList<>(schedule.getEmployees()));
+        schedule.setAvailabilities(new ArrayList<>(schedule.getAvailabilities()));
+    }
+
+    /**
+     * Replaces the request of the employee for the shift in the availability matrix, null removes it.
+     */
+    static void updateAvailabilityMatrix(
+            EmployeeSchedule schedule,
+            ProblemChangeDirector director,
+            Employee employee,
+            Day day,
+            ShiftType shiftType,
+            AvailabilityType type
+    ) {
+        var matrix = schedule.getAvailabilityMatrix();
+        // replaced first, the score director is reset on every fact change and always needs a matrix
+        director.addProblemFact(matrix.with(employee, day, shiftType, type), schedule::setAvailabilityMatrix);
+        director.removeProblemFact(matrix, removed -> {
+        });
+    }
+
+    /**
+     * Removes the availability from the facts and from the availability matrix.
+     */
+    static void removeAvailability(EmployeeSchedule schedule, ProblemChangeDirector director, Availability availability) {
+        director.removeProblemFact(availability, schedule.getAvailabilities()::remove);
+        updateAvailabilityMatrix(schedule, director, availability.employee(), availability.day(), availability.shiftType(), null);
+    }
+
+    /**
+     * Releases the shift from its pin and its employee, the solver assigns it again.
+     */
+    static void unassign(ProblemChangeDirector director, ShiftAssignment shift) {
+        if (shift.isPinned()) {
+            director.changeProblemProperty(shift, s -> s.setPinned(false));
+        }
+        if (shift.getEmployee() != null) {
+            director.changeVariable(shift, "employee", s -> s.setEmployee(null));
+        }
+    }
+
+    /**
+     * Recomputes the value ranges of the shifts, only the ones which differ are changed.
+     */
+    static void refreshAvailableEmployees(EmployeeSchedule schedule, ProblemChangeDirector director, List<ShiftAssignment> shifts) {
+        var valueRanges = new AvailableEmployees(schedule.getEmployees(), schedule.getAvailabilityMatrix());
+        shifts.forEach(shift -> {
+            var availableEmployees = valueRanges.of(shift);
+            if (!availableEmployees.equals(shift.getAvailableEmployees())) {
+                director.changeProblemProperty(shift, s -> s.setAvailableEmployees(availableEmployees));
+            }
+        });
+    }
+}
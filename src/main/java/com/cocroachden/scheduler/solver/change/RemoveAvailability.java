@@ -0,0 +1,41 @@
+package com.cocroachden.scheduler.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.cocroachden.scheduler.domain.EmployeeId;
+import com.cocroachden.scheduler.solver.AvailabilityType;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftType;
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDate;
+
+/**
+ * Removes the request of an employee for a shift of a running solve. The shift pinned for a required request is
+ * released, the employee keeps it until the solver finds a better one. Does nothing when there is no request.
+ */
+public record RemoveAvailability(
+        EmployeeId employeeId,
+        LocalDate date,
+        ShiftType shiftType
+) implements ProblemChange<EmployeeSchedule> {
+
+    @Override
+    public void doChange(@NonNull final EmployeeSchedule workingSolution, @NonNull final ProblemChangeDirector problemChangeDirector) {
+        var employee = ProblemChanges.employee(workingSolution, employeeId);
+        var day = ProblemChanges.day(workingSolution, date);
+        var availability = ProblemChanges.availability(workingSolution, employee, day, shiftType);
+        if (availability.isEmpty()) {
+            return;
+        }
+        ProblemChanges.copyFactLists(workingSolution);
+        ProblemChanges.removeAvailability(workingSolution, problemChangeDirector, availability.get());
+        var shifts = ProblemChanges.shifts(workingSolution, day, shiftType);
+        if (availability.get().type() == AvailabilityType.REQUIRED) {
+            shifts.stream()
+                  .filter(shift -> shift.getEmployee() == employee && shift.isPinned())
+                  .forEach(shift -> problemChangeDirector.changeProblemProperty(shift, s -> s.setPinned(false)));
+        }
+        ProblemChanges.refreshAvailableEmployees(workingSolution, problemChangeDirector, shifts);
+    }
+}
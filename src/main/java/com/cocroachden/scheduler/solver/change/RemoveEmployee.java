@@ -0,0 +1,29 @@
+package com.cocroachden.scheduler.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.cocroachden.scheduler.domain.EmployeeId;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Removes an employee and their requests from a running solve, their shifts, pinned ones included, are left to the
+ * solver. The indexes of the other employees do not change.
+ */
+public record RemoveEmployee(EmployeeId employeeId) implements ProblemChange<EmployeeSchedule> {
+
+    @Override
+    public void doChange(@NonNull final EmployeeSchedule workingSolution, @NonNull final ProblemChangeDirector problemChangeDirector) {
+        var employee = ProblemChanges.employee(workingSolution, employeeId);
+        ProblemChanges.copyFactLists(workingSolution);
+        List.copyOf(employee.getShiftAssignments()).forEach(shift -> ProblemChanges.unassign(problemChangeDirector, shift));
+        workingSolution.getAvailabilities().stream()
+                       .filter(availability -> availability.employee() == employee)
+                       .toList()
+                       .forEach(availability -> ProblemChanges.removeAvailability(workingSolution, problemChangeDirector, availability));
+        problemChangeDirector.removeProblemFact(employee, workingSolution.getEmployees()::remove);
+        ProblemChanges.refreshAvailableEmployees(workingSolution, problemChangeDirector, List.copyOf(workingSolution.getShiftAssignments()));
+    }
+}
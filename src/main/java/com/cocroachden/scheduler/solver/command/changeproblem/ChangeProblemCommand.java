@@ -0,0 +1,15 @@
+package com.cocroachden.scheduler.solver.command.changeproblem;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import com.cocroachden.scheduler.domain.Command;
+import com.cocroachden.scheduler.domain.SolvingId;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+
+/**
+ * Changes the problem of a running solve, see the changes in {@link com.cocroachden.scheduler.solver.change}.
+ */
+public record ChangeProblemCommand(
+        SolvingId id,
+        ProblemChange<EmployeeSchedule> change
+) implements Command {
+}
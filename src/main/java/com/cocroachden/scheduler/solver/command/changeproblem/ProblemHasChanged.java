@@ -0,0 +1,10 @@
+package com.cocroachden.scheduler.solver.command.changeproblem;
+
+import com.cocroachden.scheduler.domain.Event;
+import com.cocroachden.scheduler.domain.SolvingId;
+
+/**
+ * Published once all solvers of the solve have applied the change.
+ */
+public record ProblemHasChanged(SolvingId solvingId) implements Event {
+}
@@ -0,0 +1,61 @@
+package com.cocroachden.scheduler.solver.command.startsolving;
+
+import com.cocroachden.scheduler.solver.ScoreEngine;
+import com.cocroachden.scheduler.solver.SolverProfile;
+import lombok.With;
+
+import java.time.Instant;
+
+/**
+ * Per job overrides of the solver configuration from solverConfig.xml.
+ *
+ * @param allowUncoveredShifts over-constrained mode, an uncovered shift is penalized on the medium level only, so
+ *                             hard rules are kept and shifts nobody can take stay empty
+ * @param threadCount          NONE, AUTO or the number of solvers which solve the job in parallel from different random
+ *                             seeds, the best solution of any of them wins
+ * @param partitionDays        0 solves the problem as a whole, otherwise the length of the partitions of a
+ *                             partitioned search, 7 for calendar weeks
+ * @param portfolio            the parallel solvers differ in the local search type too, not only in the seed, and the
+ *                             weakest of them is terminated every minute so the better ones keep the cores, with
+ *                             {@link #THREAD_COUNT_NONE} one solver per local search type runs
+ * @param deadline             wall-clock time the solving has to end at, null budgets the time by the problem size
+ * @param profile              trade-off between solving time and quality, see {@link SolverProfile}
+ */
+@With
+public record SolverOptions(
+        ScoreEngine scoreEngine,
+        boolean allowUncoveredShifts,
+        String threadCount,
+        int partitionDays,
+        boolean portfolio,
+        Instant deadline,
+        SolverProfile profile
+) {
+    public static final String THREAD_COUNT_NONE = "NONE";
+    public static final String THREAD_COUNT_AUTO = "AUTO";
+
+    public static SolverOptions defaults() {
+        return new SolverOptions(ScoreEngine.CONSTRAINT_STREAMS, false, THREAD_COUNT_NONE, 0, false, null, SolverProfile.STANDARD);
+    }
+
+    public boolean isPartitioned() {
+        return partitionDays > 0;
+    }
+
+    /**
+     * @return number of solvers to run in parallel, {@link #THREAD_COUNT_AUTO} leaves two cores to the rest of the machine
+     */
+    public int resolveThreadCount() {
+        return switch (threadCount) {
+            case THREAD_COUNT_NONE -> 1;
+            case THREAD_COUNT_AUTO -> Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+            default -> {
+                var count = Integer.parseInt(threadCount);
+                if (count < 1) {
+                    throw new IllegalArgumentException("Thread count has to be NONE, AUTO or a positive number, got " + threadCount);
+                }
+                yield count;
+            }
+        };
+    }
+}
@@ -6,6 +6,10 @@ import com.cocroachden.scheduler.solver.EmployeeSchedule;
 
 public record StartSolvingCommand(
         SolvingId id,
-        EmployeeSchedule problem
+        EmployeeSchedule problem,
+        SolverOptions options
 ) implements Command {
+    public StartSolvingCommand(SolvingId id, EmployeeSchedule problem) {
+        this(id, problem, SolverOptions.defaults());
+    }
 }
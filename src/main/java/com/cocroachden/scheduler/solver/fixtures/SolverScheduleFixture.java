@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.IntStream;
 
 @Service
 public class SolverScheduleFixture {
@@ -17,65 +18,84 @@ public class SolverScheduleFixture {
     };
 
     public EmployeeSchedule generateEmployeeSchedule() {
+        return this.generateEmployeeSchedule(employeeNames.length, 30, new Random());
+    }
+
+    /**
+     * Roster of the given size with the same staffing ratio as the default one, the same seed always gives the same
+     * roster.
+     */
+    public EmployeeSchedule generateEmployeeSchedule(int employeeCount, int scheduleLength, long seed) {
+        return this.generateEmployeeSchedule(employeeCount, scheduleLength, new Random(seed));
+    }
+
+    private EmployeeSchedule generateEmployeeSchedule(int employeeCount, int scheduleLength, Random random) {
         final var startDate = LocalDate.now();
-        final var scheduleLength = 30;
         final var endDate = LocalDate.now().plusDays(scheduleLength);
-        final var employees = this.generateEmployees();
+        final var days = Day.range(startDate, endDate);
+        final var employees = this.generateEmployees(employeeCount);
         final var availabilities = new ArrayList<Availability>();
         final var shiftAssignments = new LinkedHashSet<ShiftAssignment>();
-        startDate.datesUntil(endDate.plusDays(1))
-                 .forEach(date -> employees.forEach(e -> generateAvailability(e, date).ifPresent(availabilities::add)));
-        startDate.datesUntil(endDate.plusDays(1))
-                 .forEach(date -> {
-                     for (int i = 0; i < 3; i++) {
-                         shiftAssignments.add(
-                                 new ShiftAssignment()
-                                         .setId(new ShiftAssignmentId(UUID.randomUUID().toString()))
-                                         .setDate(date)
-                                         .setShiftType(ShiftType.DAY)
-                         );
-                     }
-                     for (int i = 0; i < 2; i++) {
-                         shiftAssignments.add(
-                                 new ShiftAssignment()
-                                         .setId(new ShiftAssignmentId(UUID.randomUUID().toString()))
-                                         .setDate(date)
-                                         .setShiftType(ShiftType.NIGHT)
-                         );
-                     }
-                 });
+        final var dayShiftCount = Math.max(1, Math.round(employeeCount * 3f / employeeNames.length));
+        final var nightShiftCount = Math.max(1, Math.round(employeeCount * 2f / employeeNames.length));
+        days.forEach(day -> employees.forEach(e -> generateAvailability(e, day, random).ifPresent(availabilities::add)));
+        days.forEach(day -> {
+            for (int i = 0; i < dayShiftCount; i++) {
+                shiftAssignments.add(
+                        new ShiftAssignment()
+                                .setId(new ShiftAssignmentId(day.date().toString() + ShiftType.DAY.getSymbol() + i))
+                                .setDay(day)
+                                .setShiftType(ShiftType.DAY)
+                );
+            }
+            for (int i = 0; i < nightShiftCount; i++) {
+                shiftAssignments.add(
+                        new ShiftAssignment()
+                                .setId(new ShiftAssignmentId(day.date().toString() + ShiftType.NIGHT.getSymbol() + i))
+                                .setDay(day)
+                                .setShiftType(ShiftType.NIGHT)
+                );
+            }
+        });
 
         final var employeeSchedule = new EmployeeSchedule();
+        employeeSchedule.setStartDate(startDate);
+        employeeSchedule.setEndDate(endDate);
+        employeeSchedule.setDays(days);
         employeeSchedule.setEmployees(employees);
         employeeSchedule.setAvailabilities(availabilities);
         employeeSchedule.setShiftAssignments(shiftAssignments);
+        employeeSchedule.initializeFacts();
         return employeeSchedule;
     }
 
-    private List<Employee> generateEmployees() {
-        return Arrays.stream(employeeNames)
-                     .map(name -> new Employee(new EmployeeId(name), 15))
-                     .toList();
+    private List<Employee> generateEmployees(int employeeCount) {
+        return IntStream.range(0, employeeCount)
+                        .mapToObj(i -> i < employeeNames.length ? employeeNames[i] : employeeNames[i % employeeNames.length] + i)
+                        .map(name -> new Employee(new EmployeeId(name), 15))
+                        .toList();
     }
 
     private Optional<Availability> generateAvailability(
             Employee employee,
-            LocalDate date
+            Day day,
+            Random random
     ) {
-        var shouldContinue = Math.random() < 0.2;
+        var shouldContinue = random.nextDouble() < 0.2;
         if (!shouldContinue) {
             return Optional.empty();
         }
-        var index = (int) Math.round(Math.random() * 3);
+        var index = (int) Math.round(random.nextDouble() * 3);
         if (index > 1) {
             //make index 2 and 3 (unavailable, required) most rare
-            index = (int) Math.round((Math.random() * 3));
+            index = (int) Math.round((random.nextDouble() * 3));
         }
         return Optional.of(new Availability(
-                new AvailabilityId(employee.getEmployeeId().id() + date.toString()),
+                0,
+                new AvailabilityId(employee.getEmployeeId().id() + day.date().toString()),
                 employee,
-                date,
-                Math.random() < 0.5 ? ShiftType.NIGHT : ShiftType.DAY,
+                day,
+                random.nextDouble() < 0.5 ? ShiftType.NIGHT : ShiftType.DAY,
                 AvailabilityType.values()[index]
         ));
     }
@@ -0,0 +1,116 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import com.cocroachden.scheduler.solver.AvailabilityType;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ScheduleConstraintProvider;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+
+import java.util.BitSet;
+
+/**
+ * Picks the cheapest employee for an empty shift without a full score calculation. The cost is a local estimate of
+ * the rules of {@link ScheduleConstraintProvider} which only looks at the candidate's own shifts, so a whole block
+ * of shifts can be rebuilt greedily inside a single move.
+ */
+public final class GreedyShiftAssigner {
+
+    static final int HARD_COST = 1_000;
+    static final int LIMIT_COST = 100;
+    private static final int REQUIRED_COST = -10;
+
+    private GreedyShiftAssigner() {
+    }
+
+    /**
+     * Assigns the cheapest available employee to the shift, ties go to the first candidate after the
+     * tie-break offset. Variable listeners are triggered, so the next call sees the new assignment.
+     */
+    public static void assignBest(ScoreDirector<EmployeeSchedule> scoreDirector, ShiftAssignment shift, int tieBreak) {
+        var candidates = shift.getAvailableEmployees();
+        if (candidates.isEmpty()) {
+            return;
+        }
+        var schedule = scoreDirector.getWorkingSolution();
+        Employee best = null;
+        var bestCost = Integer.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            var candidate = candidates.get(Math.floorMod(i + tieBreak, candidates.size()));
+            var cost = cost(schedule, shift, candidate);
+            if (cost < bestCost) {
+                best = candidate;
+                bestCost = cost;
+            }
+        }
+        MoveSupport.assign(scoreDirector, shift, best);
+        scoreDirector.triggerVariableListeners();
+    }
+
+    private static int cost(EmployeeSchedule schedule, ShiftAssignment shift, Employee employee) {
+        var day = shift.getDay();
+        var cost = 0;
+        var weekShifts = 0;
+        var worksDayBefore = false;
+        var worksDayAfter = false;
+        for (ShiftAssignment other : employee.getShiftAssignments()) {
+            var otherDay = other.getDay();
+            if (otherDay.index() == day.index()) {
+                cost += HARD_COST;
+            } else if (otherDay.index() == day.index() - 1) {
+                worksDayBefore = true;
+                if (other.getShiftType() == ShiftType.NIGHT && shift.getShiftType() == ShiftType.DAY) {
+                    cost += HARD_COST;
+                }
+            } else if (otherDay.index() == day.index() + 1) {
+                worksDayAfter = true;
+                if (shift.getShiftType() == ShiftType.NIGHT && other.getShiftType() == ShiftType.DAY) {
+                    cost += HARD_COST;
+                }
+            }
+            if (otherDay.week() == day.week()) {
+                weekShifts++;
+            }
+        }
+        if (weekShifts >= ScheduleConstraintProvider.MAX_SHIFTS_PER_WEEK) {
+            cost += LIMIT_COST;
+        }
+        if (( worksDayBefore || worksDayAfter )
+                && consecutiveDays(employee, day.index()) > ScheduleConstraintProvider.MAX_CONSECUTIVE_SHIFTS) {
+            cost += LIMIT_COST;
+        }
+        cost += requestCost(schedule.getAvailabilityMatrix().get(employee, day, shift.getShiftType()));
+        // employees below their minimum are preferred, the further below the stronger
+        cost -= employee.getMinimumShiftCount() - employee.getAssignmentInfo().getTotalCount();
+        return cost;
+    }
+
+    static int requestCost(AvailabilityType request) {
+        if (request == null) {
+            return 0;
+        }
+        return switch (request) {
+            case UNAVAILABLE -> HARD_COST;
+            case UNDESIRED -> 1;
+            case DESIRED -> -1;
+            case REQUIRED -> REQUIRED_COST;
+        };
+    }
+
+    /**
+     * Length of the run of consecutive working days the employee would have if they also worked the given day.
+     */
+    private static int consecutiveDays(Employee employee, int dayIndex) {
+        var worked = new BitSet();
+        employee.getShiftAssignments().forEach(shift -> worked.set(shift.getDayIndex()));
+        var length = 1;
+        for (int before = dayIndex - 1; before >= 0 && worked.get(before); before--) {
+            length++;
+        }
+        for (int after = dayIndex + 1; worked.get(after); after++) {
+            length++;
+        }
+        return length;
+    }
+}
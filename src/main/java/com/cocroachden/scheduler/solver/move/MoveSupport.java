@@ -0,0 +1,27 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class MoveSupport {
+
+    private MoveSupport() {
+    }
+
+    static void assign(ScoreDirector<EmployeeSchedule> scoreDirector, ShiftAssignment shift, Employee employee) {
+        scoreDirector.beforeVariableChanged(shift, "employee");
+        shift.setEmployee(employee);
+        scoreDirector.afterVariableChanged(shift, "employee");
+    }
+
+    static <T> List<T> rebase(List<T> workingObjects, ScoreDirector<EmployeeSchedule> destinationScoreDirector) {
+        var rebased = new ArrayList<T>(workingObjects.size());
+        workingObjects.forEach(workingObject -> rebased.add(destinationScoreDirector.lookUpWorkingObject(workingObject)));
+        return rebased;
+    }
+}
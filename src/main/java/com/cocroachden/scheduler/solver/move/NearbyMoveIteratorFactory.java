@@ -0,0 +1,140 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import com.cocroachden.scheduler.solver.Day;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import lombok.Setter;
+import org.jspecify.annotations.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Change and swap moves restricted to shifts at most {@code maxDayDistance} days apart. The rules of the schedule
+ * only connect shifts a few days apart (consecutive shifts, day after night, the week limit), so shifts further
+ * apart rarely make a useful swap. A change move gives the origin shift to an employee working one of the nearby shifts,
+ * a swap move exchanges the employees of the origin and a nearby shift.
+ * <p>
+ * The nearby shifts only depend on the days of the shifts, they are collected day by day once per phase, the
+ * shifts themselves change only with a problem change, which restarts the phases.
+ * <p>
+ * {@code maxDayDistance} is set through {@code moveIteratorFactoryCustomProperties} in solverConfig.xml.
+ */
+@Setter
+public class NearbyMoveIteratorFactory implements MoveIteratorFactory<EmployeeSchedule, AbstractMove<EmployeeSchedule>> {
+
+    private int maxDayDistance = 3;
+    // shifts with at least one nearby shift and their nearby shifts, nearest first, for the running phase
+    private List<ShiftAssignment> origins;
+    private List<List<ShiftAssignment>> nearbyShifts;
+
+    @Override
+    public void phaseStarted(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        this.collectNearbyShifts(scoreDirector.getWorkingSolution());
+    }
+
+    @Override
+    public void phaseEnded(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        origins = null;
+        nearbyShifts = null;
+    }
+
+    @Override
+    public long getSize(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        this.ensureNearbyShifts(scoreDirector);
+        // a change move to every nearby shift and a swap with it
+        return 2 * nearbyShifts.stream().mapToLong(List::size).sum();
+    }
+
+    @Override
+    public @NonNull Iterator<AbstractMove<EmployeeSchedule>> createOriginalMoveIterator(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        this.ensureNearbyShifts(scoreDirector);
+        var moves = new ArrayList<AbstractMove<EmployeeSchedule>>();
+        for (int i = 0; i < origins.size(); i++) {
+            var origin = origins.get(i);
+            for (ShiftAssignment destination : nearbyShifts.get(i)) {
+                moves.add(new ShiftChangeMove(origin, destination.getEmployee()));
+                if (origin.getIndex() < destination.getIndex()) {
+                    moves.add(new ShiftSwapMove(origin, destination));
+                }
+            }
+        }
+        return moves.iterator();
+    }
+
+    @Override
+    public @NonNull Iterator<AbstractMove<EmployeeSchedule>> createRandomMoveIterator(
+            @NonNull final ScoreDirector<EmployeeSchedule> scoreDirector,
+            @NonNull final Random workingRandom
+    ) {
+        this.ensureNearbyShifts(scoreDirector);
+        var origins = this.origins;
+        var nearbyShifts = this.nearbyShifts;
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !origins.isEmpty();
+            }
+
+            @Override
+            public AbstractMove<EmployeeSchedule> next() {
+                var originIndex = workingRandom.nextInt(origins.size());
+                var origin = origins.get(originIndex);
+                var destinations = nearbyShifts.get(originIndex);
+                var destination = destinations.get(workingRandom.nextInt(destinations.size()));
+                if (workingRandom.nextBoolean()) {
+                    return new ShiftChangeMove(origin, destination.getEmployee());
+                }
+                return new ShiftSwapMove(origin, destination);
+            }
+        };
+    }
+
+    private void ensureNearbyShifts(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        if (nearbyShifts == null) {
+            this.collectNearbyShifts(scoreDirector.getWorkingSolution());
+        }
+    }
+
+    /**
+     * For every shift the shifts within {@code maxDayDistance} which are not the same slot, nearest first. Only the
+     * days around the shift are scanned, so the cost grows with the shifts times the shifts of a few days.
+     */
+    private void collectNearbyShifts(EmployeeSchedule schedule) {
+        var dayCount = schedule.getDays().stream().mapToInt(Day::index).max().orElse(-1) + 1;
+        var shiftsByDay = new ArrayList<List<ShiftAssignment>>(dayCount);
+        for (int d = 0; d < dayCount; d++) {
+            shiftsByDay.add(new ArrayList<>());
+        }
+        schedule.getShiftAssignments().forEach(shift -> shiftsByDay.get(shift.getDayIndex()).add(shift));
+        origins = new ArrayList<>();
+        nearbyShifts = new ArrayList<>();
+        for (ShiftAssignment origin : schedule.getShiftAssignments()) {
+            var destinations = new ArrayList<ShiftAssignment>();
+            for (int distance = 0; distance <= maxDayDistance; distance++) {
+                this.addNearby(origin, origin.getDayIndex() - distance, shiftsByDay, destinations);
+                if (distance > 0) {
+                    this.addNearby(origin, origin.getDayIndex() + distance, shiftsByDay, destinations);
+                }
+            }
+            if (!destinations.isEmpty()) {
+                origins.add(origin);
+                nearbyShifts.add(destinations);
+            }
+        }
+    }
+
+    private void addNearby(ShiftAssignment origin, int dayIndex, List<List<ShiftAssignment>> shiftsByDay, List<ShiftAssignment> destinations) {
+        if (dayIndex < 0 || dayIndex >= shiftsByDay.size()) {
+            return;
+        }
+        shiftsByDay.get(dayIndex).stream()
+                   .filter(destination -> !destination.isSameSlotAs(origin))
+                   .forEach(destinations::add);
+    }
+}
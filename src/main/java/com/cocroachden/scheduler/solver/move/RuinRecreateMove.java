@@ -0,0 +1,67 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Unassigns a block of shifts and rebuilds it with {@link GreedyShiftAssigner}, the shifts with the fewest available
+ * employees first. Pinned shifts of the block are left untouched.
+ */
+public class RuinRecreateMove extends AbstractMove<EmployeeSchedule> {
+
+    private final List<ShiftAssignment> ruinedShifts;
+    private final int tieBreak;
+
+    public RuinRecreateMove(final List<ShiftAssignment> ruinedShifts, final int tieBreak) {
+        this.ruinedShifts = ruinedShifts;
+        this.tieBreak = tieBreak;
+    }
+
+    @Override
+    public boolean isMoveDoable(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        return ruinedShifts.stream().anyMatch(shift -> !shift.isPinned());
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        var recreatedShifts = ruinedShifts.stream()
+                                          .filter(shift -> !shift.isPinned())
+                                          .sorted(Comparator.comparingInt(shift -> shift.getAvailableEmployees().size()))
+                                          .toList();
+        recreatedShifts.forEach(shift -> MoveSupport.assign(scoreDirector, shift, null));
+        scoreDirector.triggerVariableListeners();
+        recreatedShifts.forEach(shift -> GreedyShiftAssigner.assignBest(scoreDirector, shift, tieBreak));
+    }
+
+    @Override
+    public @NonNull RuinRecreateMove rebase(@NonNull final ScoreDirector<EmployeeSchedule> destinationScoreDirector) {
+        return new RuinRecreateMove(MoveSupport.rebase(ruinedShifts, destinationScoreDirector), tieBreak);
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningEntities() {
+        return ruinedShifts;
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningValues() {
+        return ruinedShifts.stream()
+                           .map(ShiftAssignment::getEmployee)
+                           .filter(Objects::nonNull)
+                           .distinct()
+                           .toList();
+    }
+
+    @Override
+    public String toString() {
+        return "Ruin and recreate " + ruinedShifts;
+    }
+}
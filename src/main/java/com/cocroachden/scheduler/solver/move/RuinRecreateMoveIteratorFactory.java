@@ -0,0 +1,98 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import com.cocroachden.scheduler.solver.Day;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import lombok.Setter;
+import org.jspecify.annotations.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Generates {@link RuinRecreateMove}s over blocks the default moves cannot escape from: all shifts of one employee
+ * in one calendar week (weekly limit, consecutive shifts) or all shifts of one day across all employees.
+ * <p>
+ * {@code ruinedBlockCount} is set through {@code moveIteratorFactoryCustomProperties} in solverConfig.xml and says
+ * how many blocks a random move ruins at once.
+ */
+@Setter
+public class RuinRecreateMoveIteratorFactory implements MoveIteratorFactory<EmployeeSchedule, RuinRecreateMove> {
+
+    private int ruinedBlockCount = 1;
+
+    @Override
+    public long getSize(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        var schedule = scoreDirector.getWorkingSolution();
+        return (long) schedule.getEmployees().size() * weekCount(schedule) + schedule.getDays().size();
+    }
+
+    @Override
+    public @NonNull Iterator<RuinRecreateMove> createOriginalMoveIterator(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        var schedule = scoreDirector.getWorkingSolution();
+        var moves = new ArrayList<RuinRecreateMove>();
+        for (Employee employee : schedule.getEmployees()) {
+            for (int week = 0; week < weekCount(schedule); week++) {
+                var block = employeeWeek(employee, week);
+                if (!block.isEmpty()) {
+                    moves.add(new RuinRecreateMove(block, 0));
+                }
+            }
+        }
+        shiftsByDay(schedule).values().forEach(block -> moves.add(new RuinRecreateMove(block, 0)));
+        return moves.iterator();
+    }
+
+    @Override
+    public @NonNull Iterator<RuinRecreateMove> createRandomMoveIterator(
+            @NonNull final ScoreDirector<EmployeeSchedule> scoreDirector,
+            @NonNull final Random workingRandom
+    ) {
+        var schedule = scoreDirector.getWorkingSolution();
+        var shifts = List.copyOf(schedule.getShiftAssignments());
+        var days = List.copyOf(shiftsByDay(schedule).values());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !shifts.isEmpty();
+            }
+
+            @Override
+            public RuinRecreateMove next() {
+                var ruinedShifts = new LinkedHashSet<ShiftAssignment>();
+                for (int i = 0; i < ruinedBlockCount; i++) {
+                    var shift = shifts.get(workingRandom.nextInt(shifts.size()));
+                    if (workingRandom.nextBoolean() && shift.getEmployee() != null) {
+                        ruinedShifts.addAll(employeeWeek(shift.getEmployee(), shift.getDay().week()));
+                    } else {
+                        ruinedShifts.addAll(days.get(workingRandom.nextInt(days.size())));
+                    }
+                }
+                return new RuinRecreateMove(List.copyOf(ruinedShifts), workingRandom.nextInt(Integer.MAX_VALUE));
+            }
+        };
+    }
+
+    private static List<ShiftAssignment> employeeWeek(Employee employee, int week) {
+        return employee.getShiftAssignments().stream()
+                       .filter(shift -> shift.getDay().week() == week)
+                       .toList();
+    }
+
+    private static Map<Day, List<ShiftAssignment>> shiftsByDay(EmployeeSchedule schedule) {
+        return schedule.getShiftAssignments().stream()
+                       .collect(Collectors.groupingBy(ShiftAssignment::getDay));
+    }
+
+    private static int weekCount(EmployeeSchedule schedule) {
+        return schedule.getDays().stream().mapToInt(Day::week).max().orElse(-1) + 1;
+    }
+}
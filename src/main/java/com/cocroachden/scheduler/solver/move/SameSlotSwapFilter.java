@@ -0,0 +1,21 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.SwapMove;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+
+/**
+ * Drops swaps between two slots of the same day and shift type, see {@link ShiftAssignment#isSameSlotAs}. Used as
+ * the {@code filterClass} of a {@code swapMoveSelector}.
+ */
+public class SameSlotSwapFilter implements SelectionFilter<EmployeeSchedule, SwapMove<EmployeeSchedule>> {
+
+    @Override
+    public boolean accept(final ScoreDirector<EmployeeSchedule> scoreDirector, final SwapMove<EmployeeSchedule> move) {
+        var left = (ShiftAssignment) move.getLeftEntity();
+        var right = (ShiftAssignment) move.getRightEntity();
+        return !left.isSameSlotAs(right);
+    }
+}
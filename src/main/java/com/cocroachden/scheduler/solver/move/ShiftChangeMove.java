@@ -0,0 +1,58 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.List;
+
+public class ShiftChangeMove extends AbstractMove<EmployeeSchedule> {
+
+    private final ShiftAssignment shift;
+    private final Employee employee;
+
+    public ShiftChangeMove(final ShiftAssignment shift, final Employee employee) {
+        this.shift = shift;
+        this.employee = employee;
+    }
+
+    @Override
+    public boolean isMoveDoable(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        return !shift.isPinned()
+                && employee != null
+                && shift.getEmployee() != employee
+                && shift.getAvailableEmployees().contains(employee);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        MoveSupport.assign(scoreDirector, shift, employee);
+    }
+
+    @Override
+    public @NonNull ShiftChangeMove rebase(@NonNull final ScoreDirector<EmployeeSchedule> destinationScoreDirector) {
+        return new ShiftChangeMove(
+                destinationScoreDirector.lookUpWorkingObject(shift),
+                destinationScoreDirector.lookUpWorkingObject(employee)
+        );
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningEntities() {
+        return List.of(shift);
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningValues() {
+        return List.of(employee);
+    }
+
+    @Override
+    public String toString() {
+        return shift + " -> " + employee;
+    }
+}
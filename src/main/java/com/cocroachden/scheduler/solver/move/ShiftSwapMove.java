@@ -0,0 +1,70 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+public class ShiftSwapMove extends AbstractMove<EmployeeSchedule> {
+
+    private final ShiftAssignment left;
+    private final ShiftAssignment right;
+
+    public ShiftSwapMove(final ShiftAssignment left, final ShiftAssignment right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public boolean isMoveDoable(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        return !left.isSameSlotAs(right)
+                && !left.isPinned()
+                && !right.isPinned()
+                && left.getEmployee() != right.getEmployee()
+                && canTake(left, right.getEmployee())
+                && canTake(right, left.getEmployee());
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        var leftEmployee = left.getEmployee();
+        MoveSupport.assign(scoreDirector, left, right.getEmployee());
+        MoveSupport.assign(scoreDirector, right, leftEmployee);
+    }
+
+    @Override
+    public @NonNull ShiftSwapMove rebase(@NonNull final ScoreDirector<EmployeeSchedule> destinationScoreDirector) {
+        return new ShiftSwapMove(
+                destinationScoreDirector.lookUpWorkingObject(left),
+                destinationScoreDirector.lookUpWorkingObject(right)
+        );
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningEntities() {
+        return List.of(left, right);
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningValues() {
+        return Stream.of(left.getEmployee(), right.getEmployee())
+                     .filter(Objects::nonNull)
+                     .toList();
+    }
+
+    private static boolean canTake(ShiftAssignment shift, Employee employee) {
+        return employee == null || shift.getAvailableEmployees().contains(employee);
+    }
+
+    @Override
+    public String toString() {
+        return left + " <-> " + right;
+    }
+}
@@ -0,0 +1,156 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Generates {@link WeekendSwapMove}s, so a whole weekend changes hands at once instead of one day after another
+ * with a worse score in between.
+ * <p>
+ * The shifts of every weekend are grouped once per phase, the shifts themselves change only with a problem change,
+ * which restarts the phases. Who works them is looked up when a move is generated.
+ */
+public class WeekendMoveIteratorFactory implements MoveIteratorFactory<EmployeeSchedule, WeekendSwapMove> {
+
+    // shifts of every weekend, for the running phase
+    private List<List<ShiftAssignment>> weekends;
+
+    @Override
+    public void phaseStarted(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        weekends = List.copyOf(weekendShifts(scoreDirector.getWorkingSolution()).values());
+    }
+
+    @Override
+    public void phaseEnded(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        weekends = null;
+    }
+
+    @Override
+    public long getSize(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        long employeeCount = scoreDirector.getWorkingSolution().getEmployees().size();
+        return this.weekends(scoreDirector).size() * employeeCount * ( employeeCount - 1 );
+    }
+
+    @Override
+    public @NonNull Iterator<WeekendSwapMove> createOriginalMoveIterator(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        var weekends = this.weekends(scoreDirector);
+        var employees = scoreDirector.getWorkingSolution().getEmployees();
+        return new Iterator<>() {
+            private int weekend = 0;
+            private int leftIndex = 0;
+            private int rightIndex = -1;
+            private List<ShiftAssignment> leftShifts;
+            private WeekendSwapMove next = this.findNext();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public WeekendSwapMove next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                var move = next;
+                next = this.findNext();
+                return move;
+            }
+
+            private WeekendSwapMove findNext() {
+                for (; weekend < weekends.size(); weekend++, leftIndex = 0) {
+                    var shifts = weekends.get(weekend);
+                    for (; leftIndex < employees.size(); leftIndex++, rightIndex = -1, leftShifts = null) {
+                        var left = employees.get(leftIndex);
+                        if (leftShifts == null) {
+                            leftShifts = shiftsOf(shifts, left);
+                        }
+                        while (!leftShifts.isEmpty() && ++rightIndex < employees.size()) {
+                            var right = employees.get(rightIndex);
+                            var rightShifts = shiftsOf(shifts, right);
+                            // a swap of two worked weekends is generated once, from the employee with the lower index
+                            if (left != right && ( rightShifts.isEmpty() || left.getIndex() < right.getIndex() )) {
+                                return new WeekendSwapMove(left, leftShifts, right, rightShifts);
+                            }
+                        }
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public @NonNull Iterator<WeekendSwapMove> createRandomMoveIterator(
+            @NonNull final ScoreDirector<EmployeeSchedule> scoreDirector,
+            @NonNull final Random workingRandom
+    ) {
+        var schedule = scoreDirector.getWorkingSolution();
+        var weekends = this.weekends(scoreDirector);
+        var employees = schedule.getEmployees();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !weekends.isEmpty() && employees.size() > 1;
+            }
+
+            @Override
+            public WeekendSwapMove next() {
+                var shifts = weekends.get(workingRandom.nextInt(weekends.size()));
+                var left = randomEmployee(shifts, workingRandom);
+                var right = employees.get(workingRandom.nextInt(employees.size()));
+                return new WeekendSwapMove(left, shiftsOf(shifts, left), right, shiftsOf(shifts, right));
+            }
+        };
+    }
+
+    /**
+     * @return employee of a random covered shift, null when the whole weekend is uncovered
+     */
+    private static Employee randomEmployee(List<ShiftAssignment> shifts, Random workingRandom) {
+        var start = workingRandom.nextInt(shifts.size());
+        for (int i = 0; i < shifts.size(); i++) {
+            var employee = shifts.get(( start + i ) % shifts.size()).getEmployee();
+            if (employee != null) {
+                return employee;
+            }
+        }
+        return null;
+    }
+
+    private List<List<ShiftAssignment>> weekends(ScoreDirector<EmployeeSchedule> scoreDirector) {
+        if (weekends == null) {
+            this.phaseStarted(scoreDirector);
+        }
+        return weekends;
+    }
+
+    /**
+     * @return all shift assignments of every weekend, keyed by {@link com.cocroachden.scheduler.solver.Day#weekendId()}
+     */
+    static Map<Integer, List<ShiftAssignment>> weekendShifts(EmployeeSchedule schedule) {
+        return schedule.getShiftAssignments().stream()
+                       .filter(shiftAssignment -> shiftAssignment.getDay().weekend())
+                       .collect(Collectors.groupingBy(shiftAssignment -> shiftAssignment.getDay().weekendId()));
+    }
+
+    private static List<ShiftAssignment> shiftsOf(List<ShiftAssignment> shifts, Employee employee) {
+        if (employee == null) {
+            return List.of();
+        }
+        return shifts.stream()
+                     .filter(shiftAssignment -> shiftAssignment.getEmployee() == employee)
+                     .toList();
+    }
+}
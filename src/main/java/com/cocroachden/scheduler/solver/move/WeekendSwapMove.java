@@ -0,0 +1,91 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Exchanges all weekend shifts of two employees in a single move, left's shifts go to right and right's shifts go
+ * to left. When right has no shift on the weekend, the whole weekend is simply handed over from left to right.
+ */
+public class WeekendSwapMove extends AbstractMove<EmployeeSchedule> {
+
+    private final Employee left;
+    private final List<ShiftAssignment> leftShifts;
+    private final Employee right;
+    private final List<ShiftAssignment> rightShifts;
+
+    public WeekendSwapMove(
+            final Employee left,
+            final List<ShiftAssignment> leftShifts,
+            final Employee right,
+            final List<ShiftAssignment> rightShifts
+    ) {
+        this.left = left;
+        this.leftShifts = leftShifts;
+        this.right = right;
+        this.rightShifts = rightShifts;
+    }
+
+    @Override
+    public boolean isMoveDoable(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        if (left == null || right == null || left == right || leftShifts.isEmpty() || this.isSymmetric()) {
+            return false;
+        }
+        return leftShifts.stream().allMatch(shift -> this.canAssign(shift, left, right))
+                && rightShifts.stream().allMatch(shift -> this.canAssign(shift, right, left));
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        leftShifts.forEach(shift -> MoveSupport.assign(scoreDirector, shift, right));
+        rightShifts.forEach(shift -> MoveSupport.assign(scoreDirector, shift, left));
+    }
+
+    @Override
+    public @NonNull WeekendSwapMove rebase(@NonNull final ScoreDirector<EmployeeSchedule> destinationScoreDirector) {
+        return new WeekendSwapMove(
+                destinationScoreDirector.lookUpWorkingObject(left),
+                MoveSupport.rebase(leftShifts, destinationScoreDirector),
+                destinationScoreDirector.lookUpWorkingObject(right),
+                MoveSupport.rebase(rightShifts, destinationScoreDirector)
+        );
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningEntities() {
+        return Stream.concat(leftShifts.stream(), rightShifts.stream()).toList();
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningValues() {
+        // left is null when the random iterator only found uncovered shifts
+        return Stream.of(left, right).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public String toString() {
+        return "%s {%s} <-> %s {%s}".formatted(leftShifts, left, rightShifts, right);
+    }
+
+    /**
+     * Both employees work the same slots, so exchanging them gives the same schedule.
+     */
+    private boolean isSymmetric() {
+        return leftShifts.size() == rightShifts.size()
+                && leftShifts.stream().allMatch(leftShift -> rightShifts.stream().anyMatch(leftShift::isSameSlotAs));
+    }
+
+    private boolean canAssign(ShiftAssignment shift, Employee from, Employee to) {
+        return !shift.isPinned() && shift.getEmployee() == from && shift.getAvailableEmployees().contains(to);
+    }
+
+}
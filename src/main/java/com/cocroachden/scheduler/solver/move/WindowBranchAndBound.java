@@ -0,0 +1,219 @@
+package com.cocroachden.scheduler.solver.move;
+
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ScheduleConstraintProvider;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Exact depth first branch and bound over the shifts of a small window, everything outside the window stays fixed.
+ * The objective is the local cost of {@link GreedyShiftAssigner}, summed over the window. The rest rules (one shift
+ * a day, no day shift after a night) are propagated: an employee breaking them is not branched on at all and a shift
+ * is left uncovered only when nobody can take it.
+ * <p>
+ * The search stops after {@code nodeLimit} nodes, the result is then the best assignment found so far, which is
+ * never worse than the current one.
+ */
+public final class WindowBranchAndBound {
+
+    private final EmployeeSchedule schedule;
+    private final List<ShiftAssignment> shifts;
+    private final long nodeLimit;
+    private final int dayCount;
+    // shift type worked by each employee on each day outside of the window and on the window days assigned so far
+    private final ShiftType[][] worked;
+    // employees by index, indexes of removed employees stay empty
+    private final Employee[] employees;
+    private final int[][] weekCounts;
+    private final int[] totalCounts;
+    // lowerBounds[i] is the lowest possible cost of the shifts i and later
+    private final int[] lowerBounds;
+    private final Employee[] current;
+    private Employee[] best;
+    private int bestCost;
+    private long nodes;
+
+    /**
+     * @param shifts unpinned shifts of the window, in the order to branch on
+     */
+    public WindowBranchAndBound(final EmployeeSchedule schedule, final List<ShiftAssignment> shifts, final long nodeLimit) {
+        this.schedule = schedule;
+        this.shifts = shifts;
+        this.nodeLimit = nodeLimit;
+        this.dayCount = schedule.getDays().size();
+        var employeeCount = schedule.getEmployees().stream().mapToInt(employee -> employee.getIndex() + 1).max().orElse(0);
+        this.employees = new Employee[employeeCount];
+        schedule.getEmployees().forEach(employee -> employees[employee.getIndex()] = employee);
+        var weekCount = schedule.getDays().stream().mapToInt(day -> day.week() + 1).max().orElse(0);
+        this.worked = new ShiftType[employeeCount][dayCount];
+        this.weekCounts = new int[employeeCount][weekCount];
+        this.totalCounts = new int[employeeCount];
+        this.lowerBounds = new int[shifts.size() + 1];
+        this.current = new Employee[shifts.size()];
+        var inWindow = new boolean[schedule.getShiftAssignments().stream().mapToInt(shift -> shift.getIndex() + 1).max().orElse(0)];
+        shifts.forEach(shift -> inWindow[shift.getIndex()] = true);
+        schedule.getShiftAssignments().stream()
+                .filter(shift -> !inWindow[shift.getIndex()] && shift.getEmployee() != null)
+                .forEach(shift -> this.apply(shift, shift.getEmployee()));
+        for (int i = shifts.size() - 1; i >= 0; i--) {
+            lowerBounds[i] = lowerBounds[i + 1] + this.lowerBound(shifts.get(i));
+        }
+    }
+
+    /**
+     * @return the best employee of every shift, in the order of the shifts, null for an uncovered shift
+     */
+    public List<Employee> solve() {
+        best = shifts.stream().map(ShiftAssignment::getEmployee).toArray(Employee[]::new);
+        bestCost = this.currentCost();
+        nodes = 0;
+        this.search(0, 0);
+        return Arrays.asList(best);
+    }
+
+    private void search(int depth, int cost) {
+        if (nodes++ >= nodeLimit || cost + lowerBounds[depth] >= bestCost) {
+            return;
+        }
+        if (depth == shifts.size()) {
+            best = current.clone();
+            bestCost = cost;
+            return;
+        }
+        var shift = shifts.get(depth);
+        var candidates = this.feasibleCandidates(shift);
+        if (candidates.length == 0) {
+            current[depth] = null;
+            this.search(depth + 1, cost + GreedyShiftAssigner.HARD_COST);
+            return;
+        }
+        for (long candidate : candidates) {
+            var employee = employees[(int) candidate];
+            current[depth] = employee;
+            this.apply(shift, employee);
+            this.search(depth + 1, cost + (int) ( candidate >> 32 ));
+            this.undo(shift, employee);
+        }
+        current[depth] = null;
+    }
+
+    /**
+     * @return candidates which keep the rest rules, cheapest first, encoded as cost in the high and employee index
+     * in the low half of a long so that a plain sort orders them
+     */
+    private long[] feasibleCandidates(ShiftAssignment shift) {
+        var candidates = new long[shift.getAvailableEmployees().size()];
+        var count = 0;
+        for (Employee employee : shift.getAvailableEmployees()) {
+            var cost = this.cost(shift, employee);
+            if (cost < GreedyShiftAssigner.HARD_COST) {
+                candidates[count++] = ( (long) cost << 32 ) | employee.getIndex();
+            }
+        }
+        var feasible = Arrays.copyOf(candidates, count);
+        Arrays.sort(feasible);
+        return feasible;
+    }
+
+    private int currentCost() {
+        var cost = 0;
+        var applied = new ArrayList<ShiftAssignment>();
+        for (ShiftAssignment shift : shifts) {
+            var employee = shift.getEmployee();
+            var shiftCost = employee == null ? GreedyShiftAssigner.HARD_COST : this.cost(shift, employee);
+            cost += shiftCost;
+            // a second shift on the same day would be lost on undo, the search never applies one either
+            if (shiftCost < GreedyShiftAssigner.HARD_COST) {
+                this.apply(shift, employee);
+                applied.add(shift);
+            }
+        }
+        applied.forEach(shift -> this.undo(shift, shift.getEmployee()));
+        return cost;
+    }
+
+    private int cost(ShiftAssignment shift, Employee employee) {
+        var e = employee.getIndex();
+        var day = shift.getDay();
+        var d = day.index();
+        var cost = 0;
+        if (worked[e][d] != null) {
+            cost += GreedyShiftAssigner.HARD_COST;
+        }
+        if (shift.getShiftType() == ShiftType.DAY && d > 0 && worked[e][d - 1] == ShiftType.NIGHT) {
+            cost += GreedyShiftAssigner.HARD_COST;
+        }
+        if (shift.getShiftType() == ShiftType.NIGHT && d + 1 < dayCount && worked[e][d + 1] == ShiftType.DAY) {
+            cost += GreedyShiftAssigner.HARD_COST;
+        }
+        if (weekCounts[e][day.week()] >= ScheduleConstraintProvider.MAX_SHIFTS_PER_WEEK) {
+            cost += GreedyShiftAssigner.LIMIT_COST;
+        }
+        if (this.consecutiveDays(e, d) > ScheduleConstraintProvider.MAX_CONSECUTIVE_SHIFTS) {
+            cost += GreedyShiftAssigner.LIMIT_COST;
+        }
+        cost += GreedyShiftAssigner.requestCost(schedule.getAvailabilityMatrix().get(employee, day, shift.getShiftType()));
+        // same term as the greedy assigner, its sum only depends on how many shifts the employee gets
+        cost -= employee.getMinimumShiftCount() - totalCounts[e];
+        return cost;
+    }
+
+    /**
+     * The lowest cost any candidate can have, the rules depending on the other assignments only add to it and the
+     * minimum shift count bonus only shrinks as the search assigns more shifts.
+     */
+    private int lowerBound(ShiftAssignment shift) {
+        var lowerBound = GreedyShiftAssigner.HARD_COST;
+        for (Employee employee : shift.getAvailableEmployees()) {
+            var request = schedule.getAvailabilityMatrix().get(employee, shift.getDay(), shift.getShiftType());
+            var cost = GreedyShiftAssigner.requestCost(request)
+                    - ( employee.getMinimumShiftCount() - totalCounts[employee.getIndex()] );
+            lowerBound = Math.min(lowerBound, cost);
+        }
+        return lowerBound;
+    }
+
+    private int consecutiveDays(int e, int dayIndex) {
+        var length = 1;
+        for (int before = dayIndex - 1; before >= 0 && worked[e][before] != null; before--) {
+            length++;
+        }
+        for (int after = dayIndex + 1; after < dayCount && worked[e][after] != null; after++) {
+            length++;
+        }
+        return length;
+    }
+
+    private void apply(ShiftAssignment shift, Employee employee) {
+        var e = employee.getIndex();
+        worked[e][shift.getDayIndex()] = shift.getShiftType();
+        weekCounts[e][shift.getDay().week()]++;
+        totalCounts[e]++;
+    }
+
+    private void undo(ShiftAssignment shift, Employee employee) {
+        var e = employee.getIndex();
+        worked[e][shift.getDayIndex()] = null;
+        weekCounts[e][shift.getDay().week()]--;
+        totalCounts[e]--;
+    }
+
+    /**
+     * @return all unpinned shifts of the days {@code fromDay} to {@code fromDay + windowDays - 1}, in the order to
+     * branch on, day by day and the shifts with the fewest available employees first
+     */
+    public static List<ShiftAssignment> windowShifts(EmployeeSchedule schedule, int fromDay, int windowDays) {
+        return schedule.getShiftAssignments().stream()
+                       .filter(shift -> !shift.isPinned())
+                       .filter(shift -> shift.getDayIndex() >= fromDay && shift.getDayIndex() < fromDay + windowDays)
+                       .sorted(Comparator.comparingInt(ShiftAssignment::getDayIndex)
+                                         .thenComparingInt(shift -> shift.getAvailableEmployees().size()))
+                       .toList();
+    }
+}
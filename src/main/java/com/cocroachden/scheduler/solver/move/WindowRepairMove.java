@@ -0,0 +1,79 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import org.jspecify.annotations.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Assigns the shifts of a window to the employees found by {@link WindowBranchAndBound}, the search itself runs
+ * when the move is created so that doing the move again after an undo gives the same result.
+ */
+public class WindowRepairMove extends AbstractMove<EmployeeSchedule> {
+
+    private final List<ShiftAssignment> shifts;
+    private final List<Employee> employees;
+
+    /**
+     * @param employees new employee of every shift, in the order of the shifts, null leaves the shift uncovered
+     */
+    public WindowRepairMove(final List<ShiftAssignment> shifts, final List<Employee> employees) {
+        this.shifts = shifts;
+        this.employees = employees;
+    }
+
+    @Override
+    public boolean isMoveDoable(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        for (int i = 0; i < shifts.size(); i++) {
+            if (!shifts.get(i).isPinned() && !Objects.equals(shifts.get(i).getEmployee(), employees.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        for (int i = 0; i < shifts.size(); i++) {
+            var shift = shifts.get(i);
+            if (!shift.isPinned() && !Objects.equals(shift.getEmployee(), employees.get(i))) {
+                MoveSupport.assign(scoreDirector, shift, employees.get(i));
+            }
+        }
+    }
+
+    @Override
+    public @NonNull WindowRepairMove rebase(@NonNull final ScoreDirector<EmployeeSchedule> destinationScoreDirector) {
+        var rebasedEmployees = new ArrayList<Employee>(employees.size());
+        employees.forEach(employee -> rebasedEmployees.add(
+                employee == null ? null : destinationScoreDirector.lookUpWorkingObject(employee)
+        ));
+        return new WindowRepairMove(MoveSupport.rebase(shifts, destinationScoreDirector), rebasedEmployees);
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningEntities() {
+        return shifts;
+    }
+
+    @Override
+    public @NonNull Collection<?> getPlanningValues() {
+        return Stream.concat(shifts.stream().map(ShiftAssignment::getEmployee), employees.stream())
+                     .filter(Objects::nonNull)
+                     .distinct()
+                     .toList();
+    }
+
+    @Override
+    public String toString() {
+        return "Window repair " + shifts + " {" + employees + "}";
+    }
+}
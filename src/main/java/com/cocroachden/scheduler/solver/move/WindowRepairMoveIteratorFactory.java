@@ -0,0 +1,79 @@
+package com.cocroachden.scheduler.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import lombok.Setter;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Generates {@link WindowRepairMove}s, every move re-solves a window of {@code windowDays} consecutive days across
+ * all employees exactly with {@link WindowBranchAndBound}. Meant for untangling dense night and day transitions
+ * which single changes and swaps only get through by breaking a rest rule first.
+ * <p>
+ * {@code windowDays} and {@code nodeLimit} are set through {@code moveIteratorFactoryCustomProperties} in
+ * solverConfig.xml. The search runs when a move is selected, so the factory gets a small
+ * {@code fixedProbabilityWeight} there and repairs a window only now and then.
+ */
+@Setter
+public class WindowRepairMoveIteratorFactory implements MoveIteratorFactory<EmployeeSchedule, WindowRepairMove> {
+
+    private int windowDays = 3;
+    private long nodeLimit = 20_000;
+
+    @Override
+    public long getSize(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        return windowCount(scoreDirector.getWorkingSolution());
+    }
+
+    @Override
+    public @NonNull Iterator<WindowRepairMove> createOriginalMoveIterator(@NonNull final ScoreDirector<EmployeeSchedule> scoreDirector) {
+        var schedule = scoreDirector.getWorkingSolution();
+        var windowCount = windowCount(schedule);
+        return new Iterator<>() {
+            private int fromDay = 0;
+
+            @Override
+            public boolean hasNext() {
+                return fromDay < windowCount;
+            }
+
+            @Override
+            public WindowRepairMove next() {
+                return repair(schedule, fromDay++);
+            }
+        };
+    }
+
+    @Override
+    public @NonNull Iterator<WindowRepairMove> createRandomMoveIterator(
+            @NonNull final ScoreDirector<EmployeeSchedule> scoreDirector,
+            @NonNull final Random workingRandom
+    ) {
+        var schedule = scoreDirector.getWorkingSolution();
+        var windowCount = windowCount(schedule);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return windowCount > 0;
+            }
+
+            @Override
+            public WindowRepairMove next() {
+                return repair(schedule, workingRandom.nextInt(windowCount));
+            }
+        };
+    }
+
+    private WindowRepairMove repair(EmployeeSchedule schedule, int fromDay) {
+        var shifts = WindowBranchAndBound.windowShifts(schedule, fromDay, windowDays);
+        return new WindowRepairMove(shifts, new WindowBranchAndBound(schedule, shifts, nodeLimit).solve());
+    }
+
+    private int windowCount(EmployeeSchedule schedule) {
+        return Math.max(0, schedule.getDays().size() - windowDays + 1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.cocroachden.scheduler.solver.phase;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.api.solver.phase.PhaseCommand;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+import com.cocroachden.scheduler.solver.move.GreedyShiftAssigner;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Comparator;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Construction phase which assigns the most constrained shifts first, weekends, then nights, then shifts with
+ * the fewest available employees, each to the cheapest employee picked by {@link GreedyShiftAssigner}.
+ * Pinned and already assigned shifts are kept. Configured as a {@code customPhase} before the construction
+ * heuristic, which then has nothing left to do.
+ */
+public class AvailabilityAwareConstruction implements PhaseCommand<EmployeeSchedule> {
+
+    private static final Comparator<ShiftAssignment> MOST_CONSTRAINED_FIRST = Comparator
+            .comparing((ShiftAssignment shift) -> !shift.getDay().weekend())
+            .thenComparing(shift -> shift.getShiftType() != ShiftType.NIGHT)
+            .thenComparingInt(shift -> shift.getAvailableEmployees().size())
+            .thenComparingInt(ShiftAssignment::getIndex);
+
+    @Override
+    public void changeWorkingSolution(
+            @NonNull final ScoreDirector<EmployeeSchedule> scoreDirector,
+            @NonNull final BooleanSupplier isPhaseTerminated
+    ) {
+        var shifts = scoreDirector.getWorkingSolution().getShiftAssignments().stream()
+                                  .filter(shift -> shift.getEmployee() == null && !shift.isPinned())
+                                  .sorted(MOST_CONSTRAINED_FIRST)
+                                  .toList();
+        for (var shift : shifts) {
+            if (isPhaseTerminated.getAsBoolean()) {
+                return;
+            }
+            GreedyShiftAssigner.assignBest(scoreDirector, shift, 0);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.cocroachden.scheduler.solver.policy;
 
-import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.solver.SolutionManager;
 import com.cocroachden.scheduler.solver.EmployeeSchedule;
 import com.cocroachden.scheduler.solver.command.startsolving.SolutionHasBeenFound;
@@ -23,7 +23,7 @@ public class PrintResultsPolicy {
 
     private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
     private final ScheduleWriter scheduleWriter;
-    private final SolutionManager<EmployeeSchedule, HardSoftScore> solutionManager;
+    private final SolutionManager<EmployeeSchedule, HardMediumSoftScore> solutionManager;
     private ScheduledFuture<?> scheduledTask;
 
     @EventListener
@@ -0,0 +1,57 @@
+package com.cocroachden.scheduler.solver.service;
+
+import ai.timefold.solver.core.config.solver.termination.TerminationCompositionStyle;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Termination of a job which replaces the fixed limit from solverConfig.xml. The job ends at its deadline, or
+ * sooner once the best solution is feasible and has not improved for a tenth of the time budget. A job without an
+ * explicit deadline gets one based on the number of shifts, small rosters are done in a minute, yearly ones get up
+ * to an hour, scaled by the time budget factor of the job's profile.
+ * <p>
+ * The plateau is measured on the solver, not per phase. The construction phases end by themselves once every shift is
+ * assigned, so the time without improvement the solver sees is that of its local search, the one phase which keeps
+ * improving over time. A phase termination would only repeat the same limit.
+ */
+final class AdaptiveTermination {
+
+    private static final double SECONDS_PER_SHIFT = 0.2;
+    private static final long MIN_SECONDS = 30;
+    private static final long MAX_SECONDS = 3_600;
+    private static final double PLATEAU_SHARE = 0.1;
+    private static final long MIN_PLATEAU_SECONDS = 2;
+
+    private AdaptiveTermination() {
+    }
+
+    /**
+     * @return the options with a deadline, the explicit one is kept
+     */
+    static SolverOptions withDeadline(SolverOptions options, EmployeeSchedule problem, Instant now) {
+        if (options.deadline() != null) {
+            return options;
+        }
+        var seconds = Math.min(MAX_SECONDS, Math.max(MIN_SECONDS, (long) ( problem.getShiftAssignments().size() * SECONDS_PER_SHIFT )));
+        return options.withDeadline(now.plusSeconds((long) Math.ceil(seconds * options.profile().getTimeBudgetFactor())));
+    }
+
+    static TerminationConfig until(Instant deadline, Instant now) {
+        var seconds = Math.max(1, Duration.between(now, deadline).toSeconds());
+        var plateauSeconds = Math.max(MIN_PLATEAU_SECONDS, (long) ( seconds * PLATEAU_SHARE ));
+        return new TerminationConfig()
+                .withTerminationCompositionStyle(TerminationCompositionStyle.OR)
+                .withSecondsSpentLimit(seconds)
+                .withTerminationConfigList(List.of(
+                        new TerminationConfig()
+                                .withTerminationCompositionStyle(TerminationCompositionStyle.AND)
+                                .withBestScoreFeasible(true)
+                                .withUnimprovedSecondsSpentLimit(plateauSeconds)
+                ));
+    }
+}
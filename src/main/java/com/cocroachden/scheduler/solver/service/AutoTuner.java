@@ -0,0 +1,147 @@
+package com.cocroachden.scheduler.solver.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import ai.timefold.solver.core.impl.io.jaxb.SolverConfigIO;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Searches the acceptor and forager parameters of the local search over a set of problems. Every candidate solves
+ * every problem once, the runs share the time budget and run in parallel on all but two cores. Candidates are ranked
+ * per problem by the best score, the lowest rank total wins and is written out as a complete solver configuration.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AutoTuner {
+
+    private static final long MIN_SECONDS_PER_RUN = 5;
+    private static final List<Integer> ENTITY_TABU_SIZES = List.of(5, 7, 10, 15);
+    private static final List<Integer> TABU_ACCEPTED_COUNT_LIMITS = List.of(500, 1000, 2000);
+    private static final List<Integer> LATE_ACCEPTANCE_SIZES = List.of(200, 400, 800, 1600);
+    private static final List<Integer> LATE_ACCEPTANCE_ACCEPTED_COUNT_LIMITS = List.of(1, 4);
+
+    private final SolverConfigProvider solverConfigProvider;
+
+    /**
+     * Blocks until all runs have finished. Nothing is run if the budget does not give every run
+     * {@link #MIN_SECONDS_PER_RUN}.
+     *
+     * @return table of the candidates, best first, or why nothing has been run
+     */
+    public String run(List<EmployeeSchedule> problems, long budgetSeconds, Path output) throws ExecutionException, InterruptedException, IOException {
+        var candidates = candidates();
+        var threadCount = SolverOptions.defaults().withThreadCount(SolverOptions.THREAD_COUNT_AUTO).resolveThreadCount();
+        var runCount = (long) candidates.size() * problems.size();
+        // runs go in waves of one run per thread, every wave takes the time of a single run
+        var waveCount = (long) Math.ceil(runCount / (double) threadCount);
+        var secondsPerRun = budgetSeconds / waveCount;
+        if (secondsPerRun < MIN_SECONDS_PER_RUN) {
+            var minimumBudget = waveCount * MIN_SECONDS_PER_RUN;
+            log.warn("Budget of {} s gives {} s per run, at least {} s are needed.", budgetSeconds, secondsPerRun, minimumBudget);
+            return "Budget of %d s is too small for %d runs on %d threads, use at least %d s.%n".formatted(
+                    budgetSeconds, runCount, threadCount, minimumBudget
+            );
+        }
+        log.info("Tuning {} candidates on {} problems, {} s per run on {} threads.", candidates.size(), problems.size(), secondsPerRun, threadCount);
+
+        var baseConfig = solverConfigProvider.get(SolverOptions.defaults());
+        var solutions = new ArrayList<List<Future<EmployeeSchedule>>>();
+        var executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (Candidate candidate : candidates) {
+                var solverFactory = SolverFactory.<EmployeeSchedule>create(
+                        candidate.apply(baseConfig).withTerminationConfig(new TerminationConfig().withSecondsSpentLimit(secondsPerRun))
+                );
+                solutions.add(problems.stream()
+                                      .map(problem -> executor.submit(() -> solverFactory.buildSolver().solve(problem.copyProblem())))
+                                      .toList());
+            }
+            var rankTotals = new int[candidates.size()];
+            for (int p = 0; p < problems.size(); p++) {
+                var scores = new ArrayList<HardMediumSoftScore>();
+                for (List<Future<EmployeeSchedule>> candidateSolutions : solutions) {
+                    scores.add(candidateSolutions.get(p).get().getScore());
+                }
+                var rankedCandidates = IntStream.range(0, candidates.size())
+                                                .boxed()
+                                                .sorted(Comparator.comparing(scores::get, Comparator.reverseOrder()))
+                                                .toList();
+                for (int rank = 0; rank < rankedCandidates.size(); rank++) {
+                    rankTotals[rankedCandidates.get(rank)] += rank + 1;
+                }
+            }
+            var ranking = IntStream.range(0, candidates.size())
+                                   .boxed()
+                                   .sorted(Comparator.comparingInt(c -> rankTotals[c]))
+                                   .toList();
+            this.write(candidates.get(ranking.get(0)).apply(baseConfig), output);
+            var report = new StringBuilder("%-40s %10s%n".formatted("Candidate", "Rank total"));
+            ranking.forEach(c -> report.append("%-40s %10d%n".formatted(candidates.get(c).name(), rankTotals[c])));
+            report.append("Best configuration written to ").append(output.toAbsolutePath()).append(System.lineSeparator());
+            return report.toString();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void write(SolverConfig solverConfig, Path output) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(output)) {
+            new SolverConfigIO().write(solverConfig, writer);
+        }
+    }
+
+    private static List<Candidate> candidates() {
+        var candidates = new ArrayList<Candidate>();
+        ENTITY_TABU_SIZES.forEach(entityTabuSize -> TABU_ACCEPTED_COUNT_LIMITS.forEach(acceptedCountLimit -> candidates.add(new Candidate(
+                "Tabu search %d, accepted %d".formatted(entityTabuSize, acceptedCountLimit),
+                new LocalSearchAcceptorConfig().withEntityTabuSize(entityTabuSize),
+                new LocalSearchForagerConfig().withAcceptedCountLimit(acceptedCountLimit)
+        ))));
+        LATE_ACCEPTANCE_SIZES.forEach(lateAcceptanceSize -> LATE_ACCEPTANCE_ACCEPTED_COUNT_LIMITS.forEach(acceptedCountLimit -> candidates.add(new Candidate(
+                "Late acceptance %d, accepted %d".formatted(lateAcceptanceSize, acceptedCountLimit),
+                new LocalSearchAcceptorConfig().withLateAcceptanceSize(lateAcceptanceSize),
+                new LocalSearchForagerConfig().withAcceptedCountLimit(acceptedCountLimit)
+        ))));
+        return candidates;
+    }
+
+    private record Candidate(String name, LocalSearchAcceptorConfig acceptorConfig, LocalSearchForagerConfig foragerConfig) {
+
+        /**
+         * @return copy of the configuration with the candidate's acceptor and forager in every local search phase
+         */
+        SolverConfig apply(SolverConfig solverConfig) {
+            List<PhaseConfig> phaseConfigs = solverConfig.getPhaseConfigList().stream()
+                                                         .map(phaseConfig -> phaseConfig instanceof LocalSearchPhaseConfig localSearchPhaseConfig
+                                                                 ? localSearchPhaseConfig.copyConfig()
+                                                                                         .withAcceptorConfig(acceptorConfig.copyConfig())
+                                                                                         .withForagerConfig(foragerConfig.copyConfig())
+                                                                 : phaseConfig)
+                                                         .toList();
+            return solverConfig.copyConfig().withPhaseList(phaseConfigs);
+        }
+    }
+}
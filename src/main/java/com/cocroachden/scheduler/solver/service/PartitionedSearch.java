@@ -0,0 +1,218 @@
+package com.cocroachden.scheduler.solver.service;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverJob;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.cocroachden.scheduler.solver.Availability;
+import com.cocroachden.scheduler.solver.Day;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ScheduleConstraintProvider;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Partitioned search for long horizons. The problem is constructed as a whole, then split into blocks of
+ * {@link SolverOptions#partitionDays()} days aligned to calendar weeks, 7 days give exactly the calendar weeks.
+ * Every block is improved by its own local search on a separate core. The problem of a block holds only its own
+ * days and {@link #CONTEXT_DAYS} days on either side, the shifts of those are pinned, so the rules crossing the block
+ * border (consecutive shifts, day after night) are scored against the fixed neighbours and the move factories only
+ * see the shifts of the block. Shifts outside of that window count towards the minimum shift counts, which are
+ * lowered by them, the fairness rules only see the window. The blocks are merged back and a short local search over
+ * the whole problem finishes the job.
+ * <p>
+ * The partitions get {@link #PARTITION_TIME_SHARE} of the time left until the deadline once the problem is
+ * constructed, the final phase the rest. Both end early on a plateau, see {@link AdaptiveTermination}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PartitionedSearch {
+
+    public static final double PARTITION_TIME_SHARE = 0.75;
+    /**
+     * Longest run of working days which crosses a block border without a penalty, one more day decides it.
+     */
+    static final int CONTEXT_DAYS = ScheduleConstraintProvider.MAX_CONSECUTIVE_SHIFTS + 1;
+
+    private final SolverConfigProvider solverConfigProvider;
+
+    /**
+     * Constructs the problem and improves every partition in parallel, blocks until all partitions are solved.
+     * Terminating the run stops the construction and the partitions, the solutions found so far are merged.
+     *
+     * @param options options with a deadline, see {@link AdaptiveTermination#withDeadline}
+     * @return the merged solution, ready for {@link #finalPhaseConfigs}, null if the run has been terminated
+     */
+    EmployeeSchedule solvePartitions(EmployeeSchedule problem, SolverOptions options, SolverRun run) throws ExecutionException, InterruptedException {
+        var solverConfig = solverConfigProvider.get(options);
+        var constructed = this.construct(problem, solverConfig, run);
+        if (run.isTerminated()) {
+            return null;
+        }
+        var partitions = this.partitions(constructed, options.partitionDays());
+        var now = Instant.now();
+        var partitionDeadline = now.plusMillis((long) ( Duration.between(now, options.deadline()).toMillis() * PARTITION_TIME_SHARE ));
+        log.info("Solving {} partitions of {} days until {}.", partitions.size(), options.partitionDays(), partitionDeadline);
+
+        var partitionConfig = solverConfig.copyConfig()
+                                          .withPhaseList(phases(solverConfig, LocalSearchPhaseConfig.class::isInstance))
+                                          .withTerminationConfig(AdaptiveTermination.until(partitionDeadline, now));
+        var solverJobs = new ArrayList<SolverJob<EmployeeSchedule, Integer>>();
+        try (var solverManager = SolverManager.<EmployeeSchedule, Integer>create(
+                SolverFactory.create(partitionConfig),
+                new SolverManagerConfig().withParallelSolverCount(SolverManagerConfig.PARALLEL_SOLVER_COUNT_AUTO)
+        )) {
+            for (int i = 0; i < partitions.size(); i++) {
+                solverJobs.add(solverManager.solve(i, this.window(constructed, partitions.get(i))));
+            }
+            if (!run.onTerminate(() -> solverJobs.forEach(SolverJob::terminateEarly))) {
+                return null;
+            }
+            for (int i = 0; i < partitions.size(); i++) {
+                this.merge(solverJobs.get(i).getFinalBestSolution(), partitions.get(i), constructed);
+            }
+        } catch (CancellationException e) {
+            // partitions still waiting for a core are cancelled by the termination
+            return null;
+        }
+        if (run.isTerminated()) {
+            return null;
+        }
+        // rebuilds the shadow variables of the merged assignments
+        return constructed.copyProblem();
+    }
+
+    /**
+     * @return configurations of the final local search over the whole problem, with the time left until the deadline
+     */
+    public List<SolverConfig> finalPhaseConfigs(SolverOptions options, int solverCount) {
+        return solverConfigProvider.get(options, solverCount);
+    }
+
+    private EmployeeSchedule construct(EmployeeSchedule problem, SolverConfig solverConfig, SolverRun run) {
+        var constructionConfig = solverConfig.copyConfig()
+                                             .withPhaseList(phases(solverConfig, Predicate.not(LocalSearchPhaseConfig.class::isInstance)))
+                                             .withTerminationConfig(new TerminationConfig());
+        var solver = SolverFactory.<EmployeeSchedule>create(constructionConfig).buildSolver();
+        if (!run.onTerminate(solver::terminateEarly)) {
+            return problem;
+        }
+        return solver.solve(problem);
+    }
+
+    /**
+     * @return days of every partition, in calendar order
+     */
+    private List<Partition> partitions(EmployeeSchedule schedule, int partitionDays) {
+        var startDayOffset = schedule.getStartDate().getDayOfWeek().getValue() - 1;
+        var dayCount = schedule.getDays().size();
+        var partitions = new ArrayList<Partition>();
+        var firstDay = 0;
+        while (firstDay < dayCount) {
+            var block = Math.floorDiv(firstDay + startDayOffset, partitionDays);
+            var lastDay = Math.min(dayCount - 1, ( block + 1 ) * partitionDays - startDayOffset - 1);
+            partitions.add(new Partition(firstDay, lastDay));
+            firstDay = lastDay + 1;
+        }
+        return partitions;
+    }
+
+    /**
+     * @return problem of the partition's days and the context days around them, with the context shifts pinned
+     */
+    private EmployeeSchedule window(EmployeeSchedule schedule, Partition partition) {
+        var fromDay = Math.max(0, partition.firstDay() - CONTEXT_DAYS);
+        var toDay = Math.min(schedule.getDays().size() - 1, partition.lastDay() + CONTEXT_DAYS);
+        var days = Day.range(schedule.getDays().get(fromDay).date(), schedule.getDays().get(toDay).date());
+        var shiftsOutside = new IdentityHashMap<Employee, Integer>();
+        schedule.getShiftAssignments().stream()
+                .filter(shift -> shift.getEmployee() != null && ( shift.getDayIndex() < fromDay || shift.getDayIndex() > toDay ))
+                .forEach(shift -> shiftsOutside.merge(shift.getEmployee(), 1, Integer::sum));
+        var employees = new IdentityHashMap<Employee, Employee>();
+        schedule.getEmployees().forEach(employee -> employees.put(employee, new Employee(
+                employee.getEmployeeId(),
+                employee.getMinimumShiftCount() - shiftsOutside.getOrDefault(employee, 0)
+        )));
+
+        var window = new EmployeeSchedule();
+        window.setStartDate(days.get(0).date());
+        window.setEndDate(days.get(days.size() - 1).date());
+        window.setDays(days);
+        window.setConstraintWeightOverrides(schedule.getConstraintWeightOverrides());
+        window.setEmployees(schedule.getEmployees().stream().map(employees::get).collect(Collectors.toCollection(ArrayList::new)));
+        window.setAvailabilities(schedule.getAvailabilities().stream()
+                                         .filter(availability -> availability.day().index() >= fromDay && availability.day().index() <= toDay)
+                                         .map(availability -> Availability.of(
+                                                 employees.get(availability.employee()),
+                                                 days.get(availability.day().index() - fromDay),
+                                                 availability.shiftType(),
+                                                 availability.type()
+                                         ))
+                                         .collect(Collectors.toCollection(ArrayList::new)));
+        var shifts = new LinkedHashSet<ShiftAssignment>();
+        schedule.getShiftAssignments().stream()
+                .filter(shift -> shift.getDayIndex() >= fromDay && shift.getDayIndex() <= toDay)
+                .forEach(shift -> shifts.add(new ShiftAssignment()
+                                                     .setId(shift.getId())
+                                                     .setDay(days.get(shift.getDayIndex() - fromDay))
+                                                     .setShiftType(shift.getShiftType())
+                                                     .setPinned(shift.isPinned() || !partition.contains(shift))
+                                                     .setEmployee(shift.getEmployee() == null ? null : employees.get(shift.getEmployee()))));
+        window.setShiftAssignments(shifts);
+        window.initializeFacts();
+        window.getShiftAssignments().stream()
+              .filter(shift -> shift.getEmployee() != null)
+              .forEach(shift -> {
+                  shift.getEmployee().getShiftAssignments().add(shift);
+                  shift.getEmployee().getAssignmentInfo().add(shift);
+              });
+        return window;
+    }
+
+    private void merge(EmployeeSchedule windowSolution, Partition partition, EmployeeSchedule target) {
+        var solvedShifts = windowSolution.getShiftAssignments().stream()
+                                         .collect(Collectors.toMap(ShiftAssignment::getId, Function.identity()));
+        var employees = target.getEmployees().stream()
+                              .collect(Collectors.toMap(Employee::getEmployeeId, Function.identity()));
+        target.getShiftAssignments().stream()
+              .filter(partition::contains)
+              .forEach(shift -> {
+                  var employee = solvedShifts.get(shift.getId()).getEmployee();
+                  shift.setEmployee(employee == null ? null : employees.get(employee.getEmployeeId()));
+              });
+    }
+
+    private static List<PhaseConfig> phases(SolverConfig solverConfig, Predicate<PhaseConfig> filter) {
+        return solverConfig.getPhaseConfigList().stream()
+                           .filter(filter)
+                           .toList();
+    }
+
+    private record Partition(int firstDay, int lastDay) {
+
+        boolean contains(ShiftAssignment shift) {
+            return shift.getDayIndex() >= firstDay && shift.getDayIndex() <= lastDay;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.cocroachden.scheduler.solver.service;
+
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchType;
+import ai.timefold.solver.core.config.heuristic.selector.move.MoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ScheduleConstraintProvider;
+import com.cocroachden.scheduler.solver.ScheduleIncrementalScoreCalculator;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.SolverProfile;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the solver configuration of a single job, solverConfig.xml with the job's {@link SolverOptions} applied.
+ * A job with a deadline ends by {@link AdaptiveTermination} instead of the time limit of solverConfig.xml, the
+ * {@link SolverProfile} sets the environment mode and the move selectors of the local search.
+ */
+@Service
+public class SolverConfigProvider {
+
+    public static final String SOLVER_CONFIG_XML = "solverConfig.xml";
+    public static final List<LocalSearchType> PORTFOLIO_LOCAL_SEARCH_TYPES = List.of(
+            LocalSearchType.TABU_SEARCH,
+            LocalSearchType.LATE_ACCEPTANCE,
+            LocalSearchType.GREAT_DELUGE
+    );
+
+    public SolverConfig get(SolverOptions options) {
+        var solverConfig = SolverConfig.createFromXmlResource(SOLVER_CONFIG_XML)
+                                       .withSolutionClass(EmployeeSchedule.class)
+                                       .withEntityClasses(Employee.class, ShiftAssignment.class);
+        var scoreDirectorFactoryConfig = switch (options.scoreEngine()) {
+            case CONSTRAINT_STREAMS -> new ScoreDirectorFactoryConfig()
+                    .withConstraintProviderClass(ScheduleConstraintProvider.class);
+            case INCREMENTAL -> new ScoreDirectorFactoryConfig()
+                    .withIncrementalScoreCalculatorClass(ScheduleIncrementalScoreCalculator.class);
+        };
+        if (options.deadline() != null) {
+            solverConfig.withTerminationConfig(AdaptiveTermination.until(options.deadline(), Instant.now()));
+        }
+        return solverConfig.withScoreDirectorFactory(scoreDirectorFactoryConfig)
+                           .withEnvironmentMode(options.profile().getEnvironmentMode())
+                           .withPhaseList(withProfile(solverConfig.getPhaseConfigList(), options.profile()));
+    }
+
+    /**
+     * @return number of solvers running the job in parallel, a portfolio without a thread count races every local
+     * search type of {@link #PORTFOLIO_LOCAL_SEARCH_TYPES} once, a single solver would have nothing to race against
+     */
+    public int solverCount(SolverOptions options) {
+        if (options.portfolio() && SolverOptions.THREAD_COUNT_NONE.equals(options.threadCount())) {
+            return PORTFOLIO_LOCAL_SEARCH_TYPES.size();
+        }
+        return options.resolveThreadCount();
+    }
+
+    /**
+     * @return one configuration per parallel solver, each with its own random seed, the first one with the default
+     * seed so that a single solver behaves exactly as before. A portfolio also rotates the local search types of
+     * {@link #PORTFOLIO_LOCAL_SEARCH_TYPES}.
+     */
+    public List<SolverConfig> get(SolverOptions options, int solverCount) {
+        return IntStream.range(0, solverCount)
+                        .mapToObj(i -> {
+                            var solverConfig = this.get(options).withRandomSeed((long) i);
+                            if (!options.portfolio()) {
+                                return solverConfig;
+                            }
+                            var localSearchType = PORTFOLIO_LOCAL_SEARCH_TYPES.get(i % PORTFOLIO_LOCAL_SEARCH_TYPES.size());
+                            return solverConfig.withPhaseList(withLocalSearchType(solverConfig.getPhaseConfigList(), localSearchType));
+                        })
+                        .toList();
+    }
+
+    private static List<PhaseConfig> withProfile(List<PhaseConfig> phaseConfigs, SolverProfile profile) {
+        return phaseConfigs.stream()
+                           .map(phaseConfig -> phaseConfig instanceof LocalSearchPhaseConfig localSearchPhaseConfig
+                                   && localSearchPhaseConfig.getMoveSelectorConfig() instanceof UnionMoveSelectorConfig union
+                                   ? localSearchPhaseConfig.copyConfig().withMoveSelectorConfig(withProfile(union, profile))
+                                   : phaseConfig)
+                           .toList();
+    }
+
+    private static UnionMoveSelectorConfig withProfile(UnionMoveSelectorConfig union, SolverProfile profile) {
+        List<MoveSelectorConfig> moveSelectorConfigs = union.getMoveSelectorList().stream()
+                                                            .filter(moveSelectorConfig -> !(moveSelectorConfig instanceof MoveIteratorFactoryConfig factoryConfig
+                                                                    && profile.getDisabledMoveIteratorFactories()
+                                                                              .contains(factoryConfig.getMoveIteratorFactoryClass())))
+                                                            .map(moveSelectorConfig -> withProperties(moveSelectorConfig, profile))
+                                                            .toList();
+        return union.copyConfig().withMoveSelectorList(moveSelectorConfigs);
+    }
+
+    private static MoveSelectorConfig withProperties(MoveSelectorConfig moveSelectorConfig, SolverProfile profile) {
+        if (!(moveSelectorConfig instanceof MoveIteratorFactoryConfig factoryConfig)) {
+            return moveSelectorConfig;
+        }
+        var properties = profile.getMoveIteratorFactoryProperties().get(factoryConfig.getMoveIteratorFactoryClass());
+        if (properties == null) {
+            return moveSelectorConfig;
+        }
+        var customProperties = new HashMap<String, String>();
+        if (factoryConfig.getMoveIteratorFactoryCustomProperties() != null) {
+            customProperties.putAll(factoryConfig.getMoveIteratorFactoryCustomProperties());
+        }
+        customProperties.putAll(properties);
+        return factoryConfig.copyConfig().withMoveIteratorFactoryCustomProperties(customProperties);
+    }
+
+    private static List<PhaseConfig> withLocalSearchType(List<PhaseConfig> phaseConfigs, LocalSearchType localSearchType) {
+        return phaseConfigs.stream()
+                           .map(phaseConfig -> phaseConfig instanceof LocalSearchPhaseConfig localSearchPhaseConfig
+                                   ? localSearchPhaseConfig.copyConfig().withLocalSearchType(localSearchType)
+                                   : phaseConfig)
+                           .toList();
+    }
+}
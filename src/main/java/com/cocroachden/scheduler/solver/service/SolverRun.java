@@ -0,0 +1,262 @@
+package com.cocroachden.scheduler.solver.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverJob;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import com.cocroachden.scheduler.domain.SolvingId;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * One solving job, solved by one solver per configuration in parallel. Every solver works on its own copy of the
+ * problem, only solutions better than the best of all solvers so far are passed on. A portfolio run also drops its
+ * weakest solver at even intervals until its deadline, see {@link #terminateWeakestSolver}.
+ * <p>
+ * Problem changes go to every solver still running. Solutions of the problem before the latest change are dropped
+ * and the first solution of the changed problem is passed on whatever its score, see {@link #addProblemChange}.
+ * <p>
+ * A run is registered before the solvers start, work done before them (the partitioned search) registers its own
+ * termination with {@link #onTerminate} so that stopping the run stops it too.
+ */
+@Slf4j
+class SolverRun {
+
+    private final SolvingId id;
+    private final List<SolverManager<EmployeeSchedule, SolvingId>> solverManagers = new ArrayList<>();
+    private final List<SolverJob<EmployeeSchedule, SolvingId>> solverJobs = new ArrayList<>();
+    private final List<HardMediumSoftScore> bestScores = new ArrayList<>();
+    private final Consumer<EmployeeSchedule> bestSolutionConsumer;
+    private final boolean portfolio;
+    private final Instant deadline;
+    private final List<Runnable> terminations = new ArrayList<>();
+    private Instant solversStartedAt;
+    private Duration eliminationInterval;
+    private EmployeeSchedule bestSolution;
+    private int problemVersion;
+    private boolean terminated;
+
+    private SolverRun(
+            final SolvingId id,
+            final Consumer<EmployeeSchedule> bestSolutionConsumer,
+            final boolean portfolio,
+            final Instant deadline
+    ) {
+        this.id = id;
+        this.bestSolutionConsumer = bestSolutionConsumer;
+        this.portfolio = portfolio;
+        this.deadline = deadline;
+    }
+
+    static SolverRun start(
+            SolvingId id,
+            EmployeeSchedule problem,
+            List<SolverConfig> solverConfigs,
+            Consumer<EmployeeSchedule> bestSolutionConsumer
+    ) {
+        return start(id, problem, solverConfigs, false, bestSolutionConsumer);
+    }
+
+    static SolverRun start(
+            SolvingId id,
+            EmployeeSchedule problem,
+            List<SolverConfig> solverConfigs,
+            boolean portfolio,
+            Consumer<EmployeeSchedule> bestSolutionConsumer
+    ) {
+        var run = create(id, portfolio, null, bestSolutionConsumer);
+        run.start(problem, solverConfigs);
+        return run;
+    }
+
+    /**
+     * Run without solvers, they are started by {@link #start(EmployeeSchedule, List)}.
+     *
+     * @param deadline end of the solving, a portfolio without one never drops a solver
+     */
+    static SolverRun create(SolvingId id, boolean portfolio, Instant deadline, Consumer<EmployeeSchedule> bestSolutionConsumer) {
+        return new SolverRun(id, bestSolutionConsumer, portfolio, deadline);
+    }
+
+    /**
+     * Starts one solver per configuration, does nothing if the run has already been terminated.
+     */
+    synchronized void start(EmployeeSchedule problem, List<SolverConfig> solverConfigs) {
+        if (terminated) {
+            return;
+        }
+        // copied before any solver starts changing the original
+        var problems = new ArrayList<EmployeeSchedule>();
+        problems.add(problem);
+        for (int i = 1; i < solverConfigs.size(); i++) {
+            problems.add(problem.copyProblem());
+        }
+        solverConfigs.forEach(solverConfig -> bestScores.add(null));
+        solversStartedAt = Instant.now();
+        if (deadline != null) {
+            eliminationInterval = Duration.between(solversStartedAt, deadline).dividedBy(solverConfigs.size());
+        }
+        for (int i = 0; i < solverConfigs.size(); i++) {
+            final var solverIndex = i;
+            var solverManager = SolverManager.<EmployeeSchedule, SolvingId>create(
+                    SolverFactory.create(solverConfigs.get(i)),
+                    new SolverManagerConfig().withParallelSolverCount("1")
+            );
+            solverManagers.add(solverManager);
+            solverJobs.add(solverManager.solveBuilder()
+                                        .withProblemId(id)
+                                        .withProblem(problems.get(i))
+                                        .withBestSolutionConsumer(solution -> this.offer(solverIndex, solution))
+                                        .run());
+        }
+    }
+
+    /**
+     * Registers work running before the solvers, it is stopped together with the run.
+     *
+     * @return false if the run has already been terminated, the termination has been called right away
+     */
+    boolean onTerminate(Runnable termination) {
+        synchronized (this) {
+            if (!terminated) {
+                terminations.add(termination);
+                return true;
+            }
+        }
+        termination.run();
+        return false;
+    }
+
+    synchronized boolean isTerminated() {
+        return terminated;
+    }
+
+    synchronized SolverStatus getSolverStatus() {
+        if (solverJobs.isEmpty()) {
+            // still partitioning
+            return terminated ? SolverStatus.NOT_SOLVING : SolverStatus.SOLVING_ACTIVE;
+        }
+        var statuses = solverJobs.stream().map(SolverJob::getSolverStatus).toList();
+        if (statuses.contains(SolverStatus.SOLVING_ACTIVE)) {
+            return SolverStatus.SOLVING_ACTIVE;
+        }
+        if (statuses.contains(SolverStatus.SOLVING_SCHEDULED)) {
+            return SolverStatus.SOLVING_SCHEDULED;
+        }
+        return SolverStatus.NOT_SOLVING;
+    }
+
+    /**
+     * Waits until all solvers have finished.
+     */
+    EmployeeSchedule getFinalBestSolution() throws ExecutionException, InterruptedException {
+        for (SolverJob<EmployeeSchedule, SolvingId> solverJob : solverJobs) {
+            solverJob.getFinalBestSolution();
+        }
+        synchronized (this) {
+            return bestSolution;
+        }
+    }
+
+    long getScoreCalculationCount() {
+        return solverJobs.stream().mapToLong(SolverJob::getScoreCalculationCount).sum();
+    }
+
+    void terminate() {
+        List<Runnable> runningTerminations;
+        List<SolverJob<EmployeeSchedule, SolvingId>> runningJobs;
+        List<SolverManager<EmployeeSchedule, SolvingId>> runningManagers;
+        // terminating waits for the solvers, which may be passing on a solution and need the lock
+        synchronized (this) {
+            terminated = true;
+            runningTerminations = List.copyOf(terminations);
+            runningJobs = List.copyOf(solverJobs);
+            runningManagers = List.copyOf(solverManagers);
+        }
+        runningTerminations.forEach(Runnable::run);
+        runningJobs.forEach(SolverJob::terminateEarly);
+        runningManagers.forEach(SolverManager::close);
+    }
+
+    /**
+     * Applies the change to the working solution of every running solver, each solver restarts from its best
+     * solution of the changed problem. The scores of the solvers are compared again from the first solution of the
+     * changed problem on.
+     *
+     * @return completes once all solvers have applied the change
+     */
+    synchronized CompletableFuture<Void> addProblemChange(ProblemChange<EmployeeSchedule> change) {
+        var version = ++problemVersion;
+        Collections.fill(bestScores, null);
+        var changes = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < solverJobs.size(); i++) {
+            if (solverJobs.get(i).getSolverStatus() == SolverStatus.NOT_SOLVING) {
+                continue;
+            }
+            changes.add(solverManagers.get(i).addProblemChange(id, (workingSolution, problemChangeDirector) -> {
+                change.doChange(workingSolution, problemChangeDirector);
+                // not a planning property, best solution clones copy it without the director knowing
+                workingSolution.setProblemVersion(version);
+            }));
+        }
+        if (changes.isEmpty()) {
+            throw new IllegalStateException("No solver of %s is running.".formatted(id.id()));
+        }
+        return CompletableFuture.allOf(changes.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Terminates the running solver with the worst best score, once per elimination interval since the solvers have
+     * started, until only one solver is left. The time left until the deadline is split into one interval per solver,
+     * so the last one gets the final interval to itself however short the job is. Does nothing for a run which is not
+     * a portfolio or has no deadline.
+     */
+    synchronized void terminateWeakestSolver(Instant now) {
+        if (!portfolio || eliminationInterval == null) {
+            return;
+        }
+        var running = new ArrayList<Integer>();
+        for (int i = 0; i < solverJobs.size(); i++) {
+            if (solverJobs.get(i).getSolverStatus() != SolverStatus.NOT_SOLVING) {
+                running.add(i);
+            }
+        }
+        var eliminated = solverJobs.size() - running.size();
+        if (running.size() < 2 || Duration.between(solversStartedAt, now).compareTo(eliminationInterval.multipliedBy(eliminated + 1)) < 0) {
+            return;
+        }
+        running.stream()
+               .min(Comparator.comparing(bestScores::get, Comparator.nullsFirst(Comparator.naturalOrder())))
+               .ifPresent(weakest -> {
+                   log.info("Terminating weakest solver {} with score {}.", weakest, bestScores.get(weakest));
+                   solverJobs.get(weakest).terminateEarly();
+               });
+    }
+
+    private synchronized void offer(int solverIndex, EmployeeSchedule solution) {
+        if (solution.getProblemVersion() < problemVersion) {
+            return;
+        }
+        bestScores.set(solverIndex, solution.getScore());
+        var sameProblem = bestSolution != null && bestSolution.getProblemVersion() == solution.getProblemVersion();
+        if (sameProblem && solution.getScore().compareTo(bestSolution.getScore()) <= 0) {
+            return;
+        }
+        bestSolution = solution;
+        bestSolutionConsumer.accept(solution);
+    }
+}
@@ -1,16 +1,21 @@
 package com.cocroachden.scheduler.solver.service;
 
-import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.api.domain.solution.ConstraintWeightOverrides;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.solver.SolverStatus;
 import com.cocroachden.scheduler.domain.SolvingId;
 import com.cocroachden.scheduler.solver.AvailabilityType;
 import com.cocroachden.scheduler.solver.EmployeeSchedule;
-import com.cocroachden.scheduler.solver.EmployeeShiftAssignmentInfo;
+import com.cocroachden.scheduler.solver.ScheduleConstraintProvider;
+import com.cocroachden.scheduler.solver.command.changeproblem.ChangeProblemCommand;
+import com.cocroachden.scheduler.solver.command.changeproblem.ProblemHasChanged;
 import com.cocroachden.scheduler.solver.command.startsolving.SolutionHasBeenFound;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
 import com.cocroachden.scheduler.solver.command.startsolving.SolvingHasStarted;
 import com.cocroachden.scheduler.solver.command.startsolving.StartSolvingCommand;
 import com.cocroachden.scheduler.solver.command.stopsolving.SolvingHasStopped;
 import com.cocroachden.scheduler.solver.command.stopsolving.StopSolvingCommand;
+import com.cocroachden.scheduler.system.time.service.SecondHasPassed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -18,58 +23,145 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SolverService {
 
-    private final SolverManager<EmployeeSchedule, SolvingId> solverManager;
+    private final SolverConfigProvider solverConfigProvider;
+    private final PartitionedSearch partitionedSearch;
     private final ApplicationEventPublisher publisher;
-    private final Set<SolvingId> runningProblems = Collections.synchronizedSet(new HashSet<>());
+    private final Map<SolvingId, SolverRun> runningProblems = new ConcurrentHashMap<>();
 
     @EventListener
     @Async
     public void handle(StartSolvingCommand command) {
         this.preAssignRequiredShifts(command.problem());
-        log.info("Solver starting. SolvingId: {}", command.id().id());
-        solverManager.solveAndListen(
+        this.applyConstraintWeights(command.problem(), command.options());
+        var options = AdaptiveTermination.withDeadline(command.options(), command.problem(), Instant.now());
+        log.info("Solver starting. SolvingId: {}, options: {}", command.id().id(), options);
+        var problem = command.problem();
+        // registered first, so that the partitioned search can be stopped as well
+        var solverRun = SolverRun.create(
                 command.id(),
-                command.problem(),
+                options.portfolio(),
+                options.deadline(),
                 result -> publisher.publishEvent(new SolutionHasBeenFound(result))
         );
-        runningProblems.add(command.id());
+        runningProblems.put(command.id(), solverRun);
         publisher.publishEvent(new SolvingHasStarted(command.id()));
+        var solverConfigs = solverConfigProvider.get(options, solverConfigProvider.solverCount(options));
+        if (options.isPartitioned()) {
+            problem = this.solvePartitions(command.id(), problem, options, solverRun);
+            if (problem == null) {
+                log.info("Partitioned search of {} has been stopped.", command.id().id());
+                return;
+            }
+            publisher.publishEvent(new SolutionHasBeenFound(problem));
+            solverConfigs = partitionedSearch.finalPhaseConfigs(options, solverConfigProvider.solverCount(options));
+        }
+        solverRun.start(problem, solverConfigs);
     }
 
     @EventListener
     public SolvingHasStopped handle(StopSolvingCommand command) {
-        solverManager.terminateEarly(command.id());
+        var solverRun = runningProblems.remove(command.id());
+        if (solverRun != null) {
+            solverRun.terminate();
+        }
         log.info("Solver stopped for solution {}.", command.id().id());
-        runningProblems.remove(command.id());
         return new SolvingHasStopped(command.id());
     }
 
+    /**
+     * Queues the change for all solvers of the running solve, {@link ProblemHasChanged} is published once they have
+     * applied it.
+     */
+    @EventListener
+    public void handle(ChangeProblemCommand command) {
+        var solverRun = runningProblems.get(command.id());
+        if (solverRun == null) {
+            throw new IllegalStateException("Solving %s is not running.".formatted(command.id().id()));
+        }
+        log.info("Changing problem of {}: {}", command.id().id(), command.change());
+        solverRun.addProblemChange(command.change())
+                 .thenRun(() -> publisher.publishEvent(new ProblemHasChanged(command.id())))
+                 .exceptionally(e -> {
+                     log.error("Problem change of {} failed.", command.id().id(), e);
+                     return null;
+                 });
+    }
+
+    /**
+     * Portfolio runs drop their weakest solver at intervals derived from their deadline, checked every second so that
+     * short jobs drop theirs too. The best solution of the run is kept.
+     */
+    @EventListener
+    public void on(SecondHasPassed event) {
+        runningProblems.values().forEach(solverRun -> solverRun.terminateWeakestSolver(event.instant()));
+    }
+
     public SolverStatus getSolverStatus(SolvingId solvingId) {
-        return solverManager.getSolverStatus(solvingId);
+        var solverRun = runningProblems.get(solvingId);
+        if (solverRun == null) {
+            return SolverStatus.NOT_SOLVING;
+        }
+        return solverRun.getSolverStatus();
+    }
+
+    private EmployeeSchedule solvePartitions(SolvingId id, EmployeeSchedule problem, SolverOptions options, SolverRun solverRun) {
+        try {
+            return partitionedSearch.solvePartitions(problem, options, solverRun);
+        } catch (ExecutionException e) {
+            runningProblems.remove(id, solverRun);
+            throw new IllegalStateException("Partitioned search of %s failed.".formatted(id.id()), e);
+        } catch (InterruptedException e) {
+            runningProblems.remove(id, solverRun);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partitioned search of %s was interrupted.".formatted(id.id()), e);
+        }
+    }
+
+    private void applyConstraintWeights(final EmployeeSchedule problem, final SolverOptions options) {
+        var weights = new HashMap<String, HardMediumSoftScore>();
+        options.profile().getDisabledConstraints().forEach(constraint -> weights.put(constraint, HardMediumSoftScore.ZERO));
+        if (options.allowUncoveredShifts()) {
+            weights.put(ScheduleConstraintProvider.UNCOVERED_SHIFT, ScheduleConstraintProvider.OVER_CONSTRAINED_UNCOVERED_SHIFT_WEIGHT);
+        }
+        if (!weights.isEmpty()) {
+            problem.setConstraintWeightOverrides(ConstraintWeightOverrides.of(weights));
+        }
     }
 
     private void preAssignRequiredShifts(final EmployeeSchedule problem) {
         problem.getAvailabilities().stream()
                .filter(a -> a.type().equals(AvailabilityType.REQUIRED))
                .forEach(a -> {
+                   // a warm started problem may already have the required shift assigned
+                   var alreadyAssigned = a.employee().getShiftAssignments().stream()
+                                          .filter(sa -> sa.getDay().equals(a.day()))
+                                          .filter(sa -> sa.getShiftType().equals(a.shiftType()))
+                                          .findAny();
+                   if (alreadyAssigned.isPresent()) {
+                       alreadyAssigned.get().setPinned(true);
+                       return;
+                   }
                    problem.getShiftAssignments().stream()
                           .filter(sa -> sa.getEmployee() == null)
-                          .filter(sa -> sa.getDate().equals(a.date()))
+                          .filter(sa -> sa.getDay().equals(a.day()))
                           .filter(sa -> sa.getShiftType().equals(a.shiftType()))
                           .findAny()
                           .ifPresent(sa -> {
-                              sa.setEmployee(a.employee());
+                              sa.setEmployee(a.employee())
+                                .setPinned(true);
                               a.employee().getShiftAssignments().add(sa);
-                              a.employee().setAssignmentInfo(new EmployeeShiftAssignmentInfo(a.employee().getShiftAssignments()));
+                              a.employee().getAssignmentInfo().add(sa);
                           });
                });
     }
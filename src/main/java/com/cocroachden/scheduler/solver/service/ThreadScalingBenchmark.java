@@ -0,0 +1,61 @@
+package com.cocroachden.scheduler.solver.service;
+
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.cocroachden.scheduler.domain.SolvingId;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
+import com.cocroachden.scheduler.solver.fixtures.SolverScheduleFixture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Solves generated rosters of several sizes with 1 to 16 parallel solvers and reports the final score and the
+ * score calculation speed of each combination, to see where adding threads stops paying off.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ThreadScalingBenchmark {
+
+    public static final List<Integer> EMPLOYEE_COUNTS = List.of(14, 28, 56);
+    public static final List<Integer> THREAD_COUNTS = List.of(1, 2, 4, 8, 16);
+    private static final int SCHEDULE_LENGTH = 30;
+    private static final long SEED = 42;
+
+    private final SolverConfigProvider solverConfigProvider;
+    private final SolverScheduleFixture fixture;
+
+    public String run(long secondsPerRun) throws ExecutionException, InterruptedException {
+        var report = new StringBuilder("%10s %8s %8s %30s %20s%n".formatted("Employees", "Shifts", "Threads", "Best score", "Score calc/s"));
+        for (Integer employeeCount : EMPLOYEE_COUNTS) {
+            for (Integer threadCount : THREAD_COUNTS) {
+                var problem = fixture.generateEmployeeSchedule(employeeCount, SCHEDULE_LENGTH, SEED);
+                var solverConfigs = solverConfigProvider.get(SolverOptions.defaults(), threadCount).stream()
+                                                        .map(solverConfig -> solverConfig.withTerminationConfig(
+                                                                new TerminationConfig().withSecondsSpentLimit(secondsPerRun)
+                                                        )).toList();
+                log.info("Benchmarking {} employees with {} threads.", employeeCount, threadCount);
+                var solverRun = SolverRun.start(
+                        new SolvingId("benchmark-%d-%d".formatted(employeeCount, threadCount)),
+                        problem,
+                        solverConfigs,
+                        solution -> {
+                        }
+                );
+                var bestSolution = solverRun.getFinalBestSolution();
+                solverRun.terminate();
+                report.append("%10d %8d %8d %30s %20d%n".formatted(
+                        employeeCount,
+                        problem.getShiftAssignments().size(),
+                        threadCount,
+                        bestSolution.getScore(),
+                        solverRun.getScoreCalculationCount() / secondsPerRun
+                ));
+            }
+        }
+        return report.toString();
+    }
+}
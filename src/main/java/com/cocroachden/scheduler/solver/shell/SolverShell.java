@@ -1,27 +1,49 @@
 package com.cocroachden.scheduler.solver.shell;
 
 import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
 import com.cocroachden.scheduler.domain.EmployeeId;
 import com.cocroachden.scheduler.domain.SolvingId;
 import com.cocroachden.scheduler.domain.Vocabulary;
+import com.cocroachden.scheduler.solver.AvailabilityType;
 import com.cocroachden.scheduler.solver.Employee;
 import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ScoreEngine;
+import com.cocroachden.scheduler.solver.ShiftType;
+import com.cocroachden.scheduler.solver.SolverProfile;
+import com.cocroachden.scheduler.solver.change.AddAvailability;
+import com.cocroachden.scheduler.solver.change.AddEmployee;
+import com.cocroachden.scheduler.solver.change.ChangeDemand;
+import com.cocroachden.scheduler.solver.change.RemoveAvailability;
+import com.cocroachden.scheduler.solver.change.RemoveEmployee;
+import com.cocroachden.scheduler.solver.command.changeproblem.ChangeProblemCommand;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
 import com.cocroachden.scheduler.solver.command.startsolving.StartSolvingCommand;
 import com.cocroachden.scheduler.solver.fixtures.SolverScheduleFixture;
 import com.cocroachden.scheduler.solver.query.SolverQuery;
+import com.cocroachden.scheduler.solver.service.AutoTuner;
+import com.cocroachden.scheduler.solver.service.ThreadScalingBenchmark;
+import com.cocroachden.scheduler.solver.utils.ScheduleProperties;
 import com.cocroachden.scheduler.solver.utils.ScheduleReader;
 import com.cocroachden.scheduler.solver.utils.ScheduleWriter;
 import lombok.AllArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.IntStream;
 
 @ShellComponent
@@ -34,9 +56,20 @@ public class SolverShell {
     private final ScheduleReader reader;
     private final ScheduleWriter scheduleWriter;
     private final Vocabulary vocabulary;
+    private final ThreadScalingBenchmark threadScalingBenchmark;
+    private final AutoTuner autoTuner;
 
     @ShellMethod("solve")
-    public String solve() {
+    public String solve(
+            @ShellOption(defaultValue = "CONSTRAINT_STREAMS", help = "CONSTRAINT_STREAMS or INCREMENTAL") ScoreEngine scoreEngine,
+            @ShellOption(defaultValue = "false", help = "Leave shifts nobody can take uncovered instead of breaking hard rules") boolean allowUncoveredShifts,
+            @ShellOption(defaultValue = SolverOptions.THREAD_COUNT_NONE, help = "NONE, AUTO or number of solvers running in parallel") String threadCount,
+            @ShellOption(defaultValue = "0", help = "Partition length in days for long schedules, 7 for calendar weeks, 0 to solve as a whole") int partitionDays,
+            @ShellOption(defaultValue = "false", help = "Race solvers with different local search types, the weakest is dropped every minute, one solver per type without a thread count") boolean portfolio,
+            @ShellOption(defaultValue = "0", help = "Minutes to solve at most, 0 budgets the time by the problem size") long minutes,
+            @ShellOption(defaultValue = "STANDARD", help = "PREVIEW, STANDARD or DEEP") SolverProfile profile,
+            @ShellOption(defaultValue = ShellOption.NULL, help = "Previous result workbook to start from, e.g. Vysledek.xlsx") String warmStart
+    ) {
         var filename = vocabulary.translateFromEn("Assignment") + ".xlsx";
         var folder = System.getProperty("user.dir");
         var file = new File(Path.of(folder + "/" + filename).toUri());
@@ -44,11 +77,26 @@ public class SolverShell {
             return "Expected file %s with problem definition not found in expected folder %s.".formatted(filename, folder);
         }
         var problem = reader.read(file);
+        if (warmStart != null) {
+            var previousResult = new File(warmStart);
+            if (!previousResult.isFile()) {
+                return "Previous result %s not found.".formatted(warmStart);
+            }
+            reader.readAssignments(previousResult, problem);
+        }
         var id = UUID.randomUUID();
         publisher.publishEvent(
                 new StartSolvingCommand(
                         new SolvingId(id.toString()),
-                        problem
+                        problem,
+                        SolverOptions.defaults()
+                                     .withScoreEngine(scoreEngine)
+                                     .withAllowUncoveredShifts(allowUncoveredShifts)
+                                     .withThreadCount(threadCount)
+                                     .withPartitionDays(partitionDays)
+                                     .withPortfolio(portfolio)
+                                     .withDeadline(minutes > 0 ? Instant.now().plus(Duration.ofMinutes(minutes)) : null)
+                                     .withProfile(profile)
                 )
         );
         return id.toString();
@@ -115,9 +163,95 @@ public class SolverShell {
         return solverQuery.getSolverStatus(new SolvingId(id)).toString();
     }
 
+    @ShellMethod(value = "Adds or replaces a request of an employee in a running solve", key = "change-availability")
+    public String changeAvailability(
+            String id,
+            String employee,
+            @ShellOption(help = "Date in format D.M.YY") String date,
+            @ShellOption(help = "DAY or NIGHT") ShiftType shiftType,
+            @ShellOption(help = "DESIRED, UNDESIRED, UNAVAILABLE or REQUIRED") AvailabilityType type
+    ) {
+        return this.changeProblem(id, new AddAvailability(new EmployeeId(employee), LocalDate.parse(date, ScheduleProperties.SCHEDULE_DATE_FORMAT), shiftType, type));
+    }
+
+    @ShellMethod(value = "Removes a request of an employee from a running solve", key = "remove-availability")
+    public String removeAvailability(
+            String id,
+            String employee,
+            @ShellOption(help = "Date in format D.M.YY") String date,
+            @ShellOption(help = "DAY or NIGHT") ShiftType shiftType
+    ) {
+        return this.changeProblem(id, new RemoveAvailability(new EmployeeId(employee), LocalDate.parse(date, ScheduleProperties.SCHEDULE_DATE_FORMAT), shiftType));
+    }
+
+    @ShellMethod(value = "Adds an employee to a running solve", key = "add-employee")
+    public String addEmployee(String id, String employee, @ShellOption(defaultValue = "0") int minimumShiftCount) {
+        return this.changeProblem(id, new AddEmployee(new EmployeeId(employee), minimumShiftCount));
+    }
+
+    @ShellMethod(value = "Removes an employee from a running solve", key = "remove-employee")
+    public String removeEmployee(String id, String employee) {
+        return this.changeProblem(id, new RemoveEmployee(new EmployeeId(employee)));
+    }
+
+    @ShellMethod(value = "Sets the number of people needed for a shift in a running solve", key = "change-demand")
+    public String changeDemand(
+            String id,
+            @ShellOption(help = "Date in format D.M.YY") String date,
+            @ShellOption(help = "DAY or NIGHT") ShiftType shiftType,
+            int count
+    ) {
+        return this.changeProblem(id, new ChangeDemand(LocalDate.parse(date, ScheduleProperties.SCHEDULE_DATE_FORMAT), shiftType, count));
+    }
+
+    private String changeProblem(String id, ProblemChange<EmployeeSchedule> change) {
+        publisher.publishEvent(new ChangeProblemCommand(new SolvingId(id), change));
+        return "Change queued for %s.".formatted(id);
+    }
+
     @ShellMethod("benchmark")
     public void benchmark() {
-        var benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource("plannerBenchmarkConfig.xml");
+        this.benchmark("plannerBenchmarkConfig.xml");
+    }
+
+    @ShellMethod(value = "Compares score calculation speed of the constraint streams and the incremental score engine", key = "benchmark-score-engines")
+    public void benchmarkScoreEngines() {
+        this.benchmark("scoreEngineBenchmarkConfig.xml");
+    }
+
+    @ShellMethod(value = "Compares change and swap moves with and without weekend moves", key = "benchmark-weekend-moves")
+    public void benchmarkWeekendMoves() {
+        this.benchmark("weekendMoveBenchmarkConfig.xml");
+    }
+
+    @ShellMethod(value = "Reports final score and score calculation speed for 1 to 16 parallel solvers on generated rosters", key = "benchmark-threads")
+    public String benchmarkThreads(@ShellOption(defaultValue = "60") long secondsPerRun) throws ExecutionException, InterruptedException {
+        return threadScalingBenchmark.run(secondsPerRun);
+    }
+
+    @ShellMethod(value = "Compares the first fit construction heuristic with the availability aware construction", key = "benchmark-construction")
+    public void benchmarkConstruction() {
+        this.benchmark("constructionBenchmarkConfig.xml");
+    }
+
+    @ShellMethod(value = "Searches acceptor and forager parameters over the given problem files and writes the best solver configuration", key = "autotune")
+    public String autotune(
+            @ShellOption(defaultValue = ShellOption.NULL, help = "Comma separated problem files, the bundled example problem when empty") String inputs,
+            @ShellOption(defaultValue = "600", help = "Time budget of the whole tuning in seconds") long budgetSeconds,
+            @ShellOption(defaultValue = "tunedSolverConfig.xml", help = "File the best configuration is written to") String output
+    ) throws ExecutionException, InterruptedException, IOException {
+        var files = inputs == null
+                ? List.of(Path.of(ClassLoader.getSystemResource("example_problem.xlsx").getPath()).toFile())
+                : Arrays.stream(inputs.split(",")).map(String::trim).map(File::new).toList();
+        var missing = files.stream().filter(file -> !file.isFile()).toList();
+        if (!missing.isEmpty()) {
+            return "Problem files %s not found.".formatted(missing);
+        }
+        return autoTuner.run(files.stream().map(reader::read).toList(), budgetSeconds, Path.of(output));
+    }
+
+    private void benchmark(String benchmarkConfigResource) {
+        var benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource(benchmarkConfigResource);
         var resource = ClassLoader.getSystemResource("example_problem.xlsx");
         var problem = reader.read(Path.of(resource.getPath()).toFile());
         var benchmark = benchmarkFactory.buildPlannerBenchmark(problem);
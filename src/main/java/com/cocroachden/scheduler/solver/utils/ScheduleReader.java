@@ -14,9 +14,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ScheduleReader {
@@ -41,12 +45,85 @@ public class ScheduleReader {
             }
             this.readSchedule(scheduleSheet, schedule);
             this.createShiftAssignments(scheduleSheet, schedule);
+            schedule.initializeFacts();
             return schedule;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Warm start, assigns the shifts of a previous result workbook to the matching empty shifts of the problem, by
+     * date, shift type and employee name. Availabilities and shift counts of the problem are kept, assignments of
+     * unknown employees, dates outside of the problem, shifts the problem no longer has, shifts the employee is no
+     * longer available for and second shifts of the same day are skipped.
+     *
+     * @return number of assigned shifts
+     */
+    public int readAssignments(File previousResult, EmployeeSchedule problem) {
+        try (
+                FileInputStream fis = new FileInputStream(previousResult);
+                var workbook = new XSSFWorkbook(fis)
+        ) {
+            var resultSheet = workbook.getSheet(vocabulary.translateFromEn(ScheduleProperties.RESULT_WB_NAME));
+            if (resultSheet == null) {
+                throw ScheduleReaderException.becauseCouldNotFindSheet(vocabulary.translateFromEn(ScheduleProperties.RESULT_WB_NAME));
+            }
+            var previousStartDate = LocalDate.parse(
+                    resultSheet.getRow(ScheduleProperties.START_DATE_VALUE_CELL.row()).getCell(ScheduleProperties.START_DATE_VALUE_CELL.column()).getStringCellValue(),
+                    ScheduleProperties.SCHEDULE_DATE_FORMAT
+            );
+            var previousEndDate = LocalDate.parse(
+                    resultSheet.getRow(ScheduleProperties.END_DATE_VALUE_CELL.row()).getCell(ScheduleProperties.END_DATE_VALUE_CELL.column()).getStringCellValue(),
+                    ScheduleProperties.SCHEDULE_DATE_FORMAT
+            );
+            var previousDayCount = (int) ChronoUnit.DAYS.between(previousStartDate, previousEndDate) + 1;
+            var employees = problem.getEmployees().stream()
+                                   .collect(Collectors.toMap(employee -> employee.getEmployeeId().id(), Function.identity()));
+            var assigned = 0;
+            for (int i = ScheduleProperties.SCHEDULE_TABLE_START.row(); i <= resultSheet.getLastRowNum(); i++) {
+                var employeeRow = resultSheet.getRow(i);
+                if (employeeRow == null) break;
+                var nameCell = employeeRow.getCell(ScheduleProperties.SCHEDULE_TABLE_START.column());
+                if (nameCell == null || nameCell.getCellType() != CellType.STRING) break;
+                var employee = employees.get(nameCell.getStringCellValue());
+                if (employee == null) continue;
+                for (int d = 0; d < previousDayCount; d++) {
+                    var cell = employeeRow.getCell(ScheduleProperties.SCHEDULE_TABLE_START.column() + 2 + d);
+                    if (cell == null || cell.getCellType() != CellType.STRING) continue;
+                    var shiftType = Arrays.stream(ShiftType.values())
+                                          .filter(type -> type.getSymbol().equals(cell.getStringCellValue().trim()))
+                                          .findAny();
+                    if (shiftType.isPresent() && this.assign(problem, employee, previousStartDate.plusDays(d), shiftType.get())) {
+                        assigned++;
+                    }
+                }
+            }
+            return assigned;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private boolean assign(EmployeeSchedule problem, Employee employee, LocalDate date, ShiftType shiftType) {
+        var worksThatDay = employee.getShiftAssignments().stream().anyMatch(shift -> shift.getDate().equals(date));
+        if (worksThatDay) {
+            return false;
+        }
+        var shift = problem.getShiftAssignments().stream()
+                           .filter(sa -> sa.getEmployee() == null)
+                           .filter(sa -> sa.getDate().equals(date))
+                           .filter(sa -> sa.getShiftType().equals(shiftType))
+                           .filter(sa -> sa.getAvailableEmployees().contains(employee))
+                           .findFirst();
+        shift.ifPresent(sa -> {
+            sa.setEmployee(employee);
+            employee.getShiftAssignments().add(sa);
+            employee.getAssignmentInfo().add(sa);
+        });
+        return shift.isPresent();
+    }
+
     private void readSchedule(XSSFSheet sheet, EmployeeSchedule schedule) {
         LocalDate startDate = LocalDate.parse(
                 sheet.getRow(ScheduleProperties.START_DATE_VALUE_CELL.row()).getCell(ScheduleProperties.START_DATE_VALUE_CELL.column()).getStringCellValue(),
@@ -58,6 +135,8 @@ public class ScheduleReader {
         );
         schedule.setStartDate(startDate);
         schedule.setEndDate(endDate);
+        var days = Day.range(startDate, endDate);
+        schedule.setDays(days);
         var employees = new ArrayList<Employee>();
         var availabilities = new ArrayList<Availability>();
         //TODO this will also pick up footer, which it shouldn't
@@ -72,32 +151,33 @@ public class ScheduleReader {
             Employee employee = new Employee(new EmployeeId(name), (int) Math.round(idealShiftCount));
             var lastCell = sheet.getRow(i).getLastCellNum();
             for (int j = ScheduleProperties.SCHEDULE_TABLE_START.column() + 2; j < lastCell + 1; j++) {
+                if (j - 2 >= days.size()) break;
                 var cell = sheet.getRow(i).getCell(j);
                 if (cell == null) continue;
                 cell.setCellType(CellType.STRING);
                 var symbol = cell.getStringCellValue();
                 if (symbol.isBlank()) continue;
-                var date = startDate.plusDays(j - 2);
+                var day = days.get(j - 2);
                 if (symbol.contains("V")) {
-                    var day = Availability.of(
+                    var dayShift = Availability.of(
                             employee,
-                            date,
+                            day,
                             ShiftType.DAY,
                             AvailabilityType.UNAVAILABLE
                     );
-                    var night = Availability.of(
+                    var nightShift = Availability.of(
                             employee,
-                            date,
+                            day,
                             ShiftType.NIGHT,
                             AvailabilityType.UNAVAILABLE
                     );
-                    availabilities.add(day);
-                    availabilities.add(night);
+                    availabilities.add(dayShift);
+                    availabilities.add(nightShift);
                 } else if (symbol.contains("D")) {
                     availabilities.add(
                             Availability.of(
                                     employee,
-                                    date,
+                                    day,
                                     ShiftType.DAY,
                                     this.parseAvailabilityFromSymbol(symbol)
                             )
@@ -106,7 +186,7 @@ public class ScheduleReader {
                     availabilities.add(
                             Availability.of(
                                     employee,
-                                    date,
+                                    day,
                                     ShiftType.NIGHT,
                                     this.parseAvailabilityFromSymbol(symbol)
                             )
@@ -122,8 +202,8 @@ public class ScheduleReader {
     private void createShiftAssignments(final XSSFSheet sheet, final EmployeeSchedule schedule) {
         var currentColumn = new AtomicInteger(ScheduleProperties.SCHEDULE_TABLE_START.column() + 2);
         var assignments = new LinkedHashSet<ShiftAssignment>();
-        schedule.getStartDate().datesUntil(schedule.getEndDate().plusDays(1))
-                .forEach(date -> {
+        schedule.getDays()
+                .forEach(day -> {
                     var dayAssignments = sheet.getRow(ScheduleProperties.DAY_SHIFT_PPL_COUNT_ROW)
                                               .getCell(currentColumn.get())
                                               .getNumericCellValue();
@@ -133,17 +213,17 @@ public class ScheduleReader {
                     for (int i = 0; i < dayAssignments; i++) {
                         assignments.add(
                                 new ShiftAssignment()
-                                        .setDate(date)
+                                        .setDay(day)
                                         .setShiftType(ShiftType.DAY)
-                                        .setId(new ShiftAssignmentId(date.toString() + ShiftType.DAY.name().charAt(0) + i))
+                                        .setId(new ShiftAssignmentId(day.date().toString() + ShiftType.DAY.name().charAt(0) + i))
                         );
                     }
                     for (int i = 0; i < nightAssignments; i++) {
                         assignments.add(
                                 new ShiftAssignment()
-                                        .setDate(date)
+                                        .setDay(day)
                                         .setShiftType(ShiftType.NIGHT)
-                                        .setId(new ShiftAssignmentId(date.toString() + ShiftType.NIGHT.name().charAt(0) + i))
+                                        .setId(new ShiftAssignmentId(day.date().toString() + ShiftType.NIGHT.name().charAt(0) + i))
                         );
                     }
                 });
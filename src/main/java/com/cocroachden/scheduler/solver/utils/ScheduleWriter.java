@@ -65,7 +65,7 @@ public class ScheduleWriter {
         this.writeSettings(schedule, resultSheet);
         this.writeHeader(schedule, resultSheet);
         var lastRow = this.writeSchedule(schedule, resultSheet, isBlank);
-        this.writeFooter(schedule, resultSheet, lastRow + 1);
+        this.writeFooter(schedule, resultSheet, lastRow + 1, isBlank);
         resultSheet.createFreezePane(ScheduleProperties.HEADER_START.column() + 2, ScheduleProperties.HEADER_START.row() + 1);
         var lastCol = resultSheet.getRow(ScheduleProperties.HEADER_START.row()).getLastCellNum();
         for (int col = ScheduleProperties.HEADER_START.column(); col <= lastCol; col++) {
@@ -185,7 +185,7 @@ public class ScheduleWriter {
                                                      .filter(a -> a.employee().equals(employee) && a.date().equals(date))
                                                      .toList();
                         var assignment = schedule.getShiftAssignments().stream()
-                                                 .filter(a -> a.getEmployee().equals(employee))
+                                                 .filter(a -> employee.equals(a.getEmployee()))
                                                  .filter(a -> a.getDate().equals(date))
                                                  .findAny();
                         var assignmentSymbol = assignment
@@ -194,10 +194,15 @@ public class ScheduleWriter {
                         var cell = employeeRow.createCell(currentColumn.getAndIncrement());
                         cell.setCellValue(assignmentSymbol);
                         final var currentCellCoords = Coordinates.of(employeeRow.getRowNum(), cell.getColumnIndex());
+                        var pinned = assignment.map(ShiftAssignment::isPinned).orElse(false);
+                        var pinnedMarker = pinned ? " (" + vocabulary.translateFromEn("Pinned") + ")" : "";
                         if (availabilities.isEmpty()) {
                             cell.setCellStyle(DEFAULT_SCHEDULE_STYLE);
+                            if (pinned) {
+                                ExcelUtils.addComment(currentCellCoords, vocabulary.translateFromEn("Pinned"), sheet);
+                            }
                         } else if (availabilities.size() == 2) {
-                            ExcelUtils.addComment(currentCellCoords, vocabulary.translateFromEn("Request") + ": V", sheet);
+                            ExcelUtils.addComment(currentCellCoords, vocabulary.translateFromEn("Request") + ": V" + pinnedMarker, sheet);
                             if (assignment.isEmpty()) {
                                 cell.setCellStyle(CORRECT_VACATION_STYLE);
                             } else {
@@ -205,7 +210,7 @@ public class ScheduleWriter {
                             }
                         } else if (availabilities.size() == 1) {
                             var availability = availabilities.get(0);
-                            ExcelUtils.addComment(currentCellCoords, vocabulary.translateFromEn("Request") + ": " + availability.getSymbol(), sheet);
+                            ExcelUtils.addComment(currentCellCoords, vocabulary.translateFromEn("Request") + ": " + availability.getSymbol() + pinnedMarker, sheet);
                             if (this.isAssignmentCorrect(assignment.map(ShiftAssignment::getShiftType).orElse(null), availability)) {
                                 cell.setCellStyle(CORRECT_STYLE);
                             } else {
@@ -272,9 +277,12 @@ public class ScheduleWriter {
         };
     }
 
-    private void writeFooter(EmployeeSchedule schedule, XSSFSheet sheet, Integer startRow) {
+    private void writeFooter(EmployeeSchedule schedule, XSSFSheet sheet, Integer startRow, final Boolean isBlank) {
         var currentRow = new AtomicInteger(startRow);
-        Stream.of("Count of D", "Count of N", "Count of V", "Total").forEach(content -> {
+        var footerRows = isBlank
+                ? Stream.of("Count of D", "Count of N", "Count of V", "Total")
+                : Stream.of("Count of D", "Count of N", "Count of V", "Total", "Uncovered shifts");
+        footerRows.forEach(content -> {
             var cell = sheet.createRow(currentRow.getAndIncrement()).createCell(ScheduleProperties.SCHEDULE_TABLE_START.column());
             cell.setCellValue(vocabulary.translateFromEn(content));
             cell.setCellStyle(DEFAULT_STYLE);
@@ -311,6 +319,15 @@ public class ScheduleWriter {
                               cell.setCellFormula(formula);
                               cell.setCellStyle(DEFAULT_STYLE);
                           });
+                    if (!isBlank) {
+                        var uncoveredShifts = schedule.getShiftAssignments().stream()
+                                                      .filter(a -> a.getEmployee() == null)
+                                                      .filter(a -> a.getDate().equals(date))
+                                                      .count();
+                        var cell = sheet.getRow(currentRow.getAndIncrement()).createCell(currentColumn.get());
+                        cell.setCellValue(uncoveredShifts);
+                        cell.setCellStyle(uncoveredShifts > 0 ? FAILED_STYLE : DEFAULT_STYLE);
+                    }
                     currentColumn.getAndIncrement();
                 });
     }
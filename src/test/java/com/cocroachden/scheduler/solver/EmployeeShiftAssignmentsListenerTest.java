@@ -0,0 +1,100 @@
+package com.cocroachden.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The counters kept by {@link EmployeeShiftAssignmentsListener} have to match a recount of the employee's shifts
+ * after any sequence of changes.
+ */
+class EmployeeShiftAssignmentsListenerTest {
+
+    @SuppressWarnings("unchecked")
+    private final ScoreDirector<EmployeeSchedule> scoreDirector = mock(ScoreDirector.class);
+    private final EmployeeShiftAssignmentsListener listener = new EmployeeShiftAssignmentsListener();
+
+    @Test
+    public void countersMatchARecountAfterChangingUnassigningAndReassigning() {
+        var schedule = this.reset(TestSchedules.assignRandomly(TestSchedules.roster(8, 28, 1), 1, 0.1));
+        var random = new Random(1);
+        var shifts = new ArrayList<>(schedule.getShiftAssignments());
+        for (int i = 0; i < 500; i++) {
+            var shift = shifts.get(random.nextInt(shifts.size()));
+            var employees = shift.getAvailableEmployees();
+            // unassigns every fifth change, the others move the shift to another employee or assign it again
+            this.change(shift, i % 5 == 0 ? null : employees.get(random.nextInt(employees.size())));
+            assertCountersMatchRecount(schedule);
+        }
+    }
+
+    @Test
+    public void unassignedShiftIsAssignedAgain() {
+        var schedule = this.reset(TestSchedules.roster(4, 14, 2));
+        var weekendShift = schedule.getShiftAssignments().stream()
+                                   .filter(shift -> shift.getDay().weekend() && shift.getShiftType() == ShiftType.NIGHT)
+                                   .findFirst()
+                                   .orElseThrow();
+        var employee = weekendShift.getAvailableEmployees().get(0);
+
+        this.change(weekendShift, employee);
+        assertThat(employee.getAssignmentInfo().getNightShifts()).isEqualTo(1);
+        assertThat(employee.getAssignmentInfo().getWeekendShifts()).isEqualTo(1);
+        this.change(weekendShift, null);
+        assertThat(employee.getAssignmentInfo().getTotalCount()).isZero();
+        assertThat(employee.getAssignmentInfo().getWeekendShifts()).isZero();
+        this.change(weekendShift, employee);
+        assertThat(employee.getAssignmentInfo().getNightShifts()).isEqualTo(1);
+        assertThat(employee.getAssignmentInfo().getWeekendShifts()).isEqualTo(1);
+        // the score director is told about every change of the shadow variable
+        verify(scoreDirector, times(3)).beforeVariableChanged(employee, "assignmentInfo");
+        verify(scoreDirector, times(3)).afterVariableChanged(employee, "assignmentInfo");
+    }
+
+    @Test
+    public void resetRecountsFromScratch() {
+        var schedule = TestSchedules.assignRandomly(TestSchedules.roster(8, 28, 3), 3, 0.1);
+        schedule.getEmployees().forEach(employee -> employee.setAssignmentInfo(new EmployeeShiftAssignmentInfo(5, 5, 5)));
+
+        this.reset(schedule);
+
+        assertCountersMatchRecount(schedule);
+    }
+
+    private EmployeeSchedule reset(EmployeeSchedule schedule) {
+        when(scoreDirector.getWorkingSolution()).thenReturn(schedule);
+        listener.resetWorkingSolution(scoreDirector);
+        return schedule;
+    }
+
+    /**
+     * Changes the employee of the shift the way the solver does, with the listener called around the change.
+     */
+    private void change(ShiftAssignment shift, Employee employee) {
+        listener.beforeVariableChanged(scoreDirector, shift);
+        shift.setEmployee(employee);
+        listener.afterVariableChanged(scoreDirector, shift);
+    }
+
+    private static void assertCountersMatchRecount(EmployeeSchedule schedule) {
+        schedule.getEmployees().forEach(employee -> {
+            var recount = new EmployeeShiftAssignmentInfo(
+                    schedule.getShiftAssignments().stream()
+                            .filter(shift -> shift.getEmployee() == employee)
+                            .toList()
+            );
+            assertThat(employee.getAssignmentInfo())
+                    .as("counters of %s", employee.getEmployeeId().id())
+                    .usingRecursiveComparison()
+                    .isEqualTo(recount);
+        });
+    }
+}
@@ -35,12 +35,12 @@ class ScheduleConstraintProviderTest {
         var fistShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example1"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(LocalDate.now())
+                .setDay(day(LocalDate.now()))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         var secondShiftSameDay = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example2"))
                 .setShiftType(ShiftType.NIGHT)
-                .setDate(LocalDate.now())
+                .setDay(day(LocalDate.now()))
                 .setEmployee(EXAMPLE_EMPLOYEE);
 
         constraintVerifier.verifyThat(ScheduleConstraintProvider::requireOnlyOneShiftPerDay)
@@ -48,17 +48,34 @@ class ScheduleConstraintProviderTest {
                           .penalizesBy(1);
     }
 
+    @Test
+    public void itCanHandleUncoveredShift() {
+        var coveredShift = new ShiftAssignment()
+                .setId(new ShiftAssignmentId("example1"))
+                .setShiftType(ShiftType.DAY)
+                .setDay(day(LocalDate.now()))
+                .setEmployee(EXAMPLE_EMPLOYEE);
+        var uncoveredShift = new ShiftAssignment()
+                .setId(new ShiftAssignmentId("example2"))
+                .setShiftType(ShiftType.NIGHT)
+                .setDay(day(LocalDate.now()));
+
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::penalizeUncoveredShift)
+                          .given(coveredShift, uncoveredShift, EXAMPLE_EMPLOYEE)
+                          .penalizesBy(1);
+    }
+
     @Test
     public void itCanHandleNoNightShiftAfterDayShift() {
         var nightShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example1"))
                 .setShiftType(ShiftType.NIGHT)
-                .setDate(LocalDate.now())
+                .setDay(day(LocalDate.now()))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         var followingDayShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example2"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(LocalDate.now().plusDays(1))
+                .setDay(day(LocalDate.now().plusDays(1)))
                 .setEmployee(EXAMPLE_EMPLOYEE);
 
         constraintVerifier.verifyThat(ScheduleConstraintProvider::requireNoDayShiftsAfterNightShift)
@@ -66,23 +83,47 @@ class ScheduleConstraintProviderTest {
                           .penalizesBy(1);
     }
 
+    @Test
+    public void itCanHandleFullWorkWeekends() {
+        var saturday = LocalDate.of(2025, 4, 26);
+        var saturdayShift = new ShiftAssignment()
+                .setId(new ShiftAssignmentId("example1"))
+                .setShiftType(ShiftType.NIGHT)
+                .setDay(day(saturday))
+                .setEmployee(EXAMPLE_EMPLOYEE);
+        var sundayShift = new ShiftAssignment()
+                .setId(new ShiftAssignmentId("example2"))
+                .setShiftType(ShiftType.NIGHT)
+                .setDay(day(saturday.plusDays(1)))
+                .setEmployee(EXAMPLE_EMPLOYEE);
+        var nextSaturdayShift = new ShiftAssignment()
+                .setId(new ShiftAssignmentId("example3"))
+                .setShiftType(ShiftType.NIGHT)
+                .setDay(day(saturday.plusDays(7)))
+                .setEmployee(EXAMPLE_EMPLOYEE);
+
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::rewardFullWorkWeekends)
+                          .given(saturdayShift, sundayShift, nextSaturdayShift, EXAMPLE_EMPLOYEE)
+                          .rewardsWith(1);
+    }
+
     @Test
     public void itCanHandleNoShiftWhenUnavailable() {
         var assignment = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("irrelevant"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(LocalDate.now())
+                .setDay(day(LocalDate.now()))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         EXAMPLE_EMPLOYEE.setAssignmentInfo(new EmployeeShiftAssignmentInfo(List.of(assignment)));
         var availability = Availability.builder()
                                        .id(new AvailabilityId("irrelevant"))
                                        .shiftType(ShiftType.DAY)
                                        .type(AvailabilityType.UNAVAILABLE)
-                                       .date(LocalDate.now())
+                                       .day(day(LocalDate.now()))
                                        .employee(EXAMPLE_EMPLOYEE)
                                        .build();
         constraintVerifier.verifyThat(ScheduleConstraintProvider::requireNoShiftWhenUnavailable)
-                          .given(assignment, availability, EXAMPLE_EMPLOYEE)
+                          .given(assignment, availability, matrixOf(availability), EXAMPLE_EMPLOYEE)
                           .penalizesBy(1);
     }
 
@@ -92,11 +133,11 @@ class ScheduleConstraintProviderTest {
                                        .id(new AvailabilityId("irrelevant"))
                                        .shiftType(ShiftType.DAY)
                                        .type(AvailabilityType.REQUIRED)
-                                       .date(LocalDate.now())
+                                       .day(day(LocalDate.now()))
                                        .employee(EXAMPLE_EMPLOYEE)
                                        .build();
         constraintVerifier.verifyThat(ScheduleConstraintProvider::requireShiftWhenRequired)
-                          .given(availability, EXAMPLE_EMPLOYEE)
+                          .given(availability, matrixOf(availability), EXAMPLE_EMPLOYEE)
                           .penalizesBy(1);
     }
 
@@ -106,32 +147,32 @@ class ScheduleConstraintProviderTest {
         var firstShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example1"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(monday)
+                .setDay(day(monday))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         var secondShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example2"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(monday.plusDays(1))
+                .setDay(day(monday.plusDays(1)))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         var thirdShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example3"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(monday.plusDays(2))
+                .setDay(day(monday.plusDays(2)))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         var fourthShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example4"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(monday.plusDays(3))
+                .setDay(day(monday.plusDays(3)))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         var fifthShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example5"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(monday.plusDays(4))
+                .setDay(day(monday.plusDays(4)))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         var sixthShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example6"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(monday.plusDays(5))
+                .setDay(day(monday.plusDays(5)))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         EXAMPLE_EMPLOYEE.setAssignmentInfo(new EmployeeShiftAssignmentInfo(List.of(firstShift, secondShift, thirdShift, fourthShift, fifthShift, sixthShift)));
         constraintVerifier.verifyThat(ScheduleConstraintProvider::penalizeTooManyShiftCountPerWeek)
@@ -139,12 +180,27 @@ class ScheduleConstraintProviderTest {
                           .penalizesBy(6);
     }
 
+    @Test
+    public void itCanHandleConsecutiveShiftsOverTurnOfTheYear() {
+        var startDate = LocalDate.of(2024, 12, 30);
+        var shifts = startDate.datesUntil(startDate.plusDays(4))
+                              .map(date -> new ShiftAssignment()
+                                      .setId(new ShiftAssignmentId("example" + date))
+                                      .setShiftType(ShiftType.DAY)
+                                      .setDay(Day.of(startDate, date))
+                                      .setEmployee(EXAMPLE_EMPLOYEE))
+                              .toArray();
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::penalizeTooManyConsecutiveShifts)
+                          .given(shifts)
+                          .penalizesBy(4);
+    }
+
     @Test
     public void itCanHandleDeviationFromIdealShiftCount() {
         var firstShift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example1"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(LocalDate.now())
+                .setDay(day(LocalDate.now()))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         EXAMPLE_EMPLOYEE.setAssignmentInfo(new EmployeeShiftAssignmentInfo(List.of(firstShift)));
         constraintVerifier.verifyThat(ScheduleConstraintProvider::penalizeDeviationFromMinimumShiftCount)
@@ -160,12 +216,35 @@ class ScheduleConstraintProviderTest {
                           .penalizesBy(100);
     }
 
+    @Test
+    public void itCanHandleEqualWeekendDistribution() {
+        var first = new Employee(new EmployeeId("example_employee_2"), 10);
+        var second = new Employee(new EmployeeId("example_employee_3"), 10);
+        first.setAssignmentInfo(new EmployeeShiftAssignmentInfo(2, 2, 2));
+        second.setAssignmentInfo(new EmployeeShiftAssignmentInfo(2, 2, 2));
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::penalizeUnequalWeekendDistribution)
+                          .given(first, second)
+                          .penalizesBy(0);
+    }
+
+    @Test
+    public void itCanHandleUnequalWeekendDistribution() {
+        var first = new Employee(new EmployeeId("example_employee_2"), 10);
+        var second = new Employee(new EmployeeId("example_employee_3"), 10);
+        first.setAssignmentInfo(new EmployeeShiftAssignmentInfo(2, 2, 4));
+        second.setAssignmentInfo(new EmployeeShiftAssignmentInfo(2, 2, 0));
+        // ten times the square root of the summed squared deviations, 10 * sqrt(2 * 2 + 2 * 2)
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::penalizeUnequalWeekendDistribution)
+                          .given(first, second)
+                          .penalizesBy(28);
+    }
+
     @Test
     public void itCanHandleShiftWhenUndesired() {
         var shift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example1"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(LocalDate.now())
+                .setDay(day(LocalDate.now()))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         EXAMPLE_EMPLOYEE.setAssignmentInfo(new EmployeeShiftAssignmentInfo(List.of(shift)));
         var availability = Availability.builder()
@@ -173,10 +252,10 @@ class ScheduleConstraintProviderTest {
                                        .id(new AvailabilityId("example2"))
                                        .shiftType(ShiftType.DAY)
                                        .type(AvailabilityType.UNDESIRED)
-                                       .date(LocalDate.now())
+                                       .day(day(LocalDate.now()))
                                        .build();
         constraintVerifier.verifyThat(ScheduleConstraintProvider::penalizeAssignedWhenUndesirable)
-                          .given(shift, availability, EXAMPLE_EMPLOYEE)
+                          .given(shift, availability, matrixOf(availability), EXAMPLE_EMPLOYEE)
                           .penalizesBy(1);
     }
 
@@ -185,7 +264,7 @@ class ScheduleConstraintProviderTest {
         var shift = new ShiftAssignment()
                 .setId(new ShiftAssignmentId("example1"))
                 .setShiftType(ShiftType.DAY)
-                .setDate(LocalDate.now())
+                .setDay(day(LocalDate.now()))
                 .setEmployee(EXAMPLE_EMPLOYEE);
         EXAMPLE_EMPLOYEE.setAssignmentInfo(new EmployeeShiftAssignmentInfo(List.of(shift)));
         var availability = Availability.builder()
@@ -193,13 +272,21 @@ class ScheduleConstraintProviderTest {
                                        .id(new AvailabilityId("example2"))
                                        .shiftType(ShiftType.DAY)
                                        .type(AvailabilityType.DESIRED)
-                                       .date(LocalDate.now())
+                                       .day(day(LocalDate.now()))
                                        .build();
         constraintVerifier.verifyThat(ScheduleConstraintProvider::rewardAssignedWhenDesirable)
-                          .given(shift, availability, EXAMPLE_EMPLOYEE)
+                          .given(shift, availability, matrixOf(availability), EXAMPLE_EMPLOYEE)
                           .rewardsWith(1);
     }
 
+    private static Day day(LocalDate date) {
+        return Day.of(LocalDate.now(), date);
+    }
+
+    private static AvailabilityMatrix matrixOf(Availability availability) {
+        return AvailabilityMatrix.of(List.of(availability.employee()), List.of(availability.day()), List.of(availability));
+    }
+
     @TestConfiguration
     public static class ScheduleConstraintProviderTestConfiguration {
         @Bean
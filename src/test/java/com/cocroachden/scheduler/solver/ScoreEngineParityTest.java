@@ -0,0 +1,105 @@
+package com.cocroachden.scheduler.solver;
+
+import ai.timefold.solver.core.api.domain.solution.ConstraintWeightOverrides;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolutionUpdatePolicy;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
+import com.cocroachden.scheduler.solver.service.SolverConfigProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ScheduleIncrementalScoreCalculator} has to give the same score as {@link ScheduleConstraintProvider} on
+ * every schedule.
+ */
+class ScoreEngineParityTest {
+
+    private static final SolverConfigProvider SOLVER_CONFIG_PROVIDER = new SolverConfigProvider();
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5})
+    public void bothEnginesScoreRandomRostersEqually(long seed) {
+        var schedule = TestSchedules.assignRandomly(TestSchedules.roster(14, 30, seed), seed, 0.1);
+        assertSameScore(schedule);
+    }
+
+    @Test
+    public void bothEnginesScoreAnUnassignedRosterEqually() {
+        assertSameScore(TestSchedules.roster(14, 30, 1));
+    }
+
+    @Test
+    public void bothEnginesScoreAllShiftsOfOneEmployeeEqually() {
+        var schedule = TestSchedules.roster(5, 21, 2);
+        var employee = schedule.getEmployees().get(0);
+        schedule.getShiftAssignments().forEach(shift -> TestSchedules.assign(shift, employee));
+        assertSameScore(schedule);
+    }
+
+    @Test
+    public void bothEnginesScoreNightsFollowedByDaysEqually() {
+        var schedule = TestSchedules.roster(4, 14, 3);
+        var employees = schedule.getEmployees();
+        schedule.getShiftAssignments().stream()
+                .sorted(Comparator.comparingInt(ShiftAssignment::getIndex))
+                .forEach(shift -> {
+                    // every employee works the night of one day and the day shift of the next one
+                    var employee = employees.get(( shift.getDayIndex() + ( shift.getShiftType() == ShiftType.NIGHT ? 0 : employees.size() - 1 ) ) % employees.size());
+                    TestSchedules.assign(shift, employee);
+                });
+        assertSameScore(schedule);
+    }
+
+    @Test
+    public void bothEnginesScoreUncoveredShiftsEquallyWhenOverConstrained() {
+        var schedule = TestSchedules.assignRandomly(TestSchedules.roster(6, 30, 4), 4, 0.5);
+        schedule.setConstraintWeightOverrides(ConstraintWeightOverrides.of(Map.of(
+                ScheduleConstraintProvider.UNCOVERED_SHIFT, ScheduleConstraintProvider.OVER_CONSTRAINED_UNCOVERED_SHIFT_WEIGHT
+        )));
+        assertSameScore(schedule);
+    }
+
+    @Test
+    public void bothEnginesScoreThePreviewProfileEqually() {
+        var schedule = TestSchedules.assignRandomly(TestSchedules.roster(10, 28, 6), 6, 0.1);
+        var weights = new HashMap<String, HardMediumSoftScore>();
+        SolverProfile.PREVIEW.getDisabledConstraints().forEach(constraint -> weights.put(constraint, HardMediumSoftScore.ZERO));
+        schedule.setConstraintWeightOverrides(ConstraintWeightOverrides.of(weights));
+        assertSameScore(schedule);
+    }
+
+    @Test
+    public void incrementalEngineSolvesWithoutScoreCorruption() {
+        var solverConfig = SOLVER_CONFIG_PROVIDER.get(SolverOptions.defaults().withScoreEngine(ScoreEngine.INCREMENTAL))
+                                                 .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                                                 .withTerminationConfig(new TerminationConfig().withSpentLimit(Duration.ofSeconds(10)));
+        // every step is also scored from scratch by the constraint streams
+        solverConfig.getScoreDirectorFactoryConfig().setAssertionScoreDirectorFactory(
+                new ScoreDirectorFactoryConfig().withConstraintProviderClass(ScheduleConstraintProvider.class)
+        );
+        var solution = SolverFactory.<EmployeeSchedule>create(solverConfig).buildSolver().solve(TestSchedules.roster(6, 14, 5));
+        assertThat(solution.getScore()).isNotNull();
+    }
+
+    private static void assertSameScore(EmployeeSchedule schedule) {
+        assertThat(score(schedule, ScoreEngine.INCREMENTAL)).isEqualTo(score(schedule, ScoreEngine.CONSTRAINT_STREAMS));
+    }
+
+    private static HardMediumSoftScore score(EmployeeSchedule schedule, ScoreEngine scoreEngine) {
+        var solverFactory = SolverFactory.<EmployeeSchedule>create(SOLVER_CONFIG_PROVIDER.get(SolverOptions.defaults().withScoreEngine(scoreEngine)));
+        return SolutionManager.<EmployeeSchedule, HardMediumSoftScore>create(solverFactory).update(schedule, SolutionUpdatePolicy.UPDATE_SCORE_ONLY);
+    }
+}
@@ -0,0 +1,46 @@
+package com.cocroachden.scheduler.solver;
+
+import com.cocroachden.scheduler.solver.fixtures.SolverScheduleFixture;
+
+import java.util.Random;
+
+/**
+ * Rosters for tests which need a whole schedule, assignments are made the way the reader and the pre-assignment of
+ * required shifts make them, so that the shadow variables are consistent without a solver.
+ */
+public final class TestSchedules {
+
+    private TestSchedules() {
+    }
+
+    public static EmployeeSchedule roster(int employeeCount, int scheduleLength, long seed) {
+        return new SolverScheduleFixture().generateEmployeeSchedule(employeeCount, scheduleLength, seed);
+    }
+
+    /**
+     * Gives every shift a random employee of its value range, leaves about {@code uncoveredShare} of them uncovered.
+     */
+    public static EmployeeSchedule assignRandomly(EmployeeSchedule schedule, long seed, double uncoveredShare) {
+        var random = new Random(seed);
+        schedule.getShiftAssignments().forEach(shift -> {
+            var availableEmployees = shift.getAvailableEmployees();
+            assign(shift, random.nextDouble() < uncoveredShare ? null : availableEmployees.get(random.nextInt(availableEmployees.size())));
+        });
+        return schedule;
+    }
+
+    /**
+     * Moves the shift to the employee, null leaves it uncovered.
+     */
+    public static void assign(ShiftAssignment shift, Employee employee) {
+        if (shift.getEmployee() != null) {
+            shift.getEmployee().getShiftAssignments().remove(shift);
+            shift.getEmployee().getAssignmentInfo().remove(shift);
+        }
+        shift.setEmployee(employee);
+        if (employee != null) {
+            employee.getShiftAssignments().add(shift);
+            employee.getAssignmentInfo().add(shift);
+        }
+    }
+}
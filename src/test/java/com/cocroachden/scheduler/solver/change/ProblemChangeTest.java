@@ -0,0 +1,190 @@
+package com.cocroachden.scheduler.solver.change;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.cocroachden.scheduler.domain.ShiftAssignmentId;
+import com.cocroachden.scheduler.solver.AvailabilityType;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+import com.cocroachden.scheduler.solver.TestSchedules;
+import com.cocroachden.scheduler.solver.command.startsolving.SolverOptions;
+import com.cocroachden.scheduler.solver.service.SolverConfigProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every change is applied through the {@link SolverManager} of a running solve of the fixture roster, the way
+ * {@code ChangeProblemCommand} applies it.
+ */
+class ProblemChangeTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @Test
+    public void removedEmployeeHoldsNoShifts() throws Exception {
+        var problem = TestSchedules.roster(8, 14, 1);
+        var employeeId = problem.getEmployees().get(0).getEmployeeId();
+
+        var solution = last(solve(problem, new RemoveEmployee(employeeId)));
+
+        assertThat(solution.getEmployees()).extracting(Employee::getEmployeeId).doesNotContain(employeeId);
+        assertThat(solution.getShiftAssignments()).noneMatch(shift -> shift.getEmployee() != null && shift.getEmployee().getEmployeeId().equals(employeeId));
+        assertThat(solution.getShiftAssignments()).allMatch(shift -> shift.getAvailableEmployees().stream().noneMatch(employee -> employee.getEmployeeId().equals(employeeId)));
+    }
+
+    @Test
+    public void requiredShiftIsAssignedAndPinned() throws Exception {
+        var problem = TestSchedules.roster(8, 14, 2);
+        var employeeId = problem.getEmployees().get(1).getEmployeeId();
+        var date = problem.getDays().get(3).date();
+
+        var solution = last(solve(problem, new AddAvailability(employeeId, date, ShiftType.DAY, AvailabilityType.REQUIRED)));
+
+        assertThat(shifts(solution, date, ShiftType.DAY))
+                .anyMatch(shift -> shift.isPinned() && shift.getEmployee() != null && shift.getEmployee().getEmployeeId().equals(employeeId));
+    }
+
+    @Test
+    public void unavailableEmployeeIsTakenOffTheShift() throws Exception {
+        var problem = TestSchedules.roster(8, 14, 3);
+        var pinnedShift = shifts(problem, problem.getDays().get(5).date(), ShiftType.NIGHT).get(0);
+        var employee = pinnedShift.getAvailableEmployees().get(0);
+        TestSchedules.assign(pinnedShift, employee);
+        pinnedShift.setPinned(true);
+
+        var solution = last(solve(problem, new AddAvailability(employee.getEmployeeId(), pinnedShift.getDate(), ShiftType.NIGHT, AvailabilityType.UNAVAILABLE)));
+
+        var shift = shift(solution, pinnedShift.getId());
+        assertThat(shift.isPinned()).isFalse();
+        assertThat(shifts(solution, pinnedShift.getDate(), ShiftType.NIGHT))
+                .noneMatch(s -> s.getEmployee() != null && s.getEmployee().getEmployeeId().equals(employee.getEmployeeId()));
+        assertThat(shift.getAvailableEmployees()).extracting(Employee::getEmployeeId).doesNotContain(employee.getEmployeeId());
+    }
+
+    @Test
+    public void loweredDemandKeepsPinnedShifts() throws Exception {
+        var problem = TestSchedules.roster(8, 14, 4);
+        var employeeId = problem.getEmployees().get(2).getEmployeeId();
+        var date = problem.getDays().get(6).date();
+
+        var solution = last(solve(
+                problem,
+                new AddAvailability(employeeId, date, ShiftType.DAY, AvailabilityType.REQUIRED),
+                new ChangeDemand(date, ShiftType.DAY, 0)
+        ));
+
+        assertThat(shifts(solution, date, ShiftType.DAY))
+                .singleElement()
+                .satisfies(shift -> {
+                    assertThat(shift.isPinned()).isTrue();
+                    assertThat(shift.getEmployee().getEmployeeId()).isEqualTo(employeeId);
+                });
+    }
+
+    @Test
+    public void earlierBestSolutionsAreNotChanged() throws Exception {
+        var problem = TestSchedules.roster(8, 14, 5);
+        var employeeId = problem.getEmployees().get(3).getEmployeeId();
+        var date = problem.getDays().get(2).date();
+        var bestSolutions = new CopyOnWriteArrayList<EmployeeSchedule>();
+        var firstSolution = new CountDownLatch(1);
+        try (var solverManager = solverManager()) {
+            solverManager.solveBuilder()
+                         .withProblemId(1L)
+                         .withProblem(problem)
+                         .withBestSolutionConsumer(solution -> {
+                             bestSolutions.add(solution);
+                             firstSolution.countDown();
+                         })
+                         .run();
+            assertThat(firstSolution.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+            var earlier = bestSolutions.get(bestSolutions.size() - 1);
+            var employeeCount = earlier.getEmployees().size();
+            var availabilityCount = earlier.getAvailabilities().size();
+            var matrix = earlier.getAvailabilityMatrix();
+            var assignments = assignments(earlier);
+
+            solverManager.addProblemChange(1L, new AddAvailability(employeeId, date, ShiftType.NIGHT, AvailabilityType.REQUIRED))
+                         .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            solverManager.addProblemChange(1L, new RemoveEmployee(problem.getEmployees().get(4).getEmployeeId()))
+                         .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            assertThat(earlier.getEmployees()).hasSize(employeeCount);
+            assertThat(earlier.getAvailabilities()).hasSize(availabilityCount);
+            assertThat(earlier.getAvailabilityMatrix()).isSameAs(matrix);
+            assertThat(assignments(earlier)).isEqualTo(assignments);
+        }
+    }
+
+    /**
+     * Solves the problem, applies the changes one after another once the first solution is there.
+     *
+     * @return all best solutions, the last one has all changes applied
+     */
+    @SafeVarargs
+    private static List<EmployeeSchedule> solve(EmployeeSchedule problem, ProblemChange<EmployeeSchedule>... changes) throws Exception {
+        var bestSolutions = new CopyOnWriteArrayList<EmployeeSchedule>();
+        var firstSolution = new CountDownLatch(1);
+        try (var solverManager = solverManager()) {
+            solverManager.solveBuilder()
+                         .withProblemId(1L)
+                         .withProblem(problem)
+                         .withBestSolutionConsumer(solution -> {
+                             bestSolutions.add(solution);
+                             firstSolution.countDown();
+                         })
+                         .run();
+            assertThat(firstSolution.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+            for (ProblemChange<EmployeeSchedule> change : changes) {
+                // completes once a best solution with the change has been consumed
+                solverManager.addProblemChange(1L, change).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+        return bestSolutions;
+    }
+
+    private static SolverManager<EmployeeSchedule, Long> solverManager() {
+        var solverConfig = new SolverConfigProvider().get(SolverOptions.defaults())
+                                                     .withTerminationConfig(new TerminationConfig().withSpentLimit(Duration.ofMinutes(1)));
+        return SolverManager.create(SolverFactory.create(solverConfig));
+    }
+
+    private static EmployeeSchedule last(List<EmployeeSchedule> bestSolutions) {
+        return bestSolutions.get(bestSolutions.size() - 1);
+    }
+
+    private static List<ShiftAssignment> shifts(EmployeeSchedule schedule, LocalDate date, ShiftType shiftType) {
+        return schedule.getShiftAssignments().stream()
+                       .filter(shift -> shift.getDate().equals(date) && shift.getShiftType() == shiftType)
+                       .toList();
+    }
+
+    private static ShiftAssignment shift(EmployeeSchedule schedule, ShiftAssignmentId id) {
+        return schedule.getShiftAssignments().stream()
+                       .filter(shift -> shift.getId().equals(id))
+                       .findAny()
+                       .orElseThrow();
+    }
+
+    private static Map<ShiftAssignmentId, String> assignments(EmployeeSchedule schedule) {
+        return schedule.getShiftAssignments().stream()
+                       .collect(Collectors.toMap(
+                               ShiftAssignment::getId,
+                               shift -> ( shift.getEmployee() == null ? "" : shift.getEmployee().getEmployeeId().id() ) + shift.isPinned()
+                       ));
+    }
+}
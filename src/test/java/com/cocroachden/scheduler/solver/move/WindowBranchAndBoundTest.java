@@ -0,0 +1,219 @@
+package com.cocroachden.scheduler.solver.move;
+
+import com.cocroachden.scheduler.domain.EmployeeId;
+import com.cocroachden.scheduler.domain.ShiftAssignmentId;
+import com.cocroachden.scheduler.solver.Availability;
+import com.cocroachden.scheduler.solver.AvailabilityType;
+import com.cocroachden.scheduler.solver.Day;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+import com.cocroachden.scheduler.solver.TestSchedules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowBranchAndBoundTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2026, 1, 5);
+
+    @Test
+    public void itFindsTheBruteForceOptimumOfASmallWindow() {
+        var schedule = smallSchedule();
+        var shifts = WindowBranchAndBound.windowShifts(schedule, 0, 2);
+        var currentCost = cost(schedule, shifts, shifts.stream().map(ShiftAssignment::getEmployee).toList());
+
+        var result = new WindowBranchAndBound(schedule, shifts, Long.MAX_VALUE).solve();
+
+        var bestCost = bruteForce(schedule, shifts, 0, new Employee[shifts.size()]);
+        assertThat(cost(schedule, shifts, result)).isEqualTo(bestCost)
+                                                  .isLessThanOrEqualTo(currentCost);
+        assertNoRestViolations(schedule, shifts, result);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3})
+    public void itKeepsTheRestRulesOnTheFixtureRoster(long seed) {
+        var schedule = assignWithoutRestViolations(TestSchedules.roster(10, 21, seed), seed);
+        var shifts = WindowBranchAndBound.windowShifts(schedule, 7, 3);
+
+        var result = new WindowBranchAndBound(schedule, shifts, 100_000).solve();
+
+        assertThat(result).hasSameSizeAs(shifts);
+        assertNoRestViolations(schedule, shifts, result);
+    }
+
+    /**
+     * Random assignment day by day which keeps the rest rules, a shift nobody can take stays uncovered.
+     */
+    private static EmployeeSchedule assignWithoutRestViolations(EmployeeSchedule schedule, long seed) {
+        var random = new Random(seed);
+        var worked = new HashMap<Employee, ShiftType[]>();
+        schedule.getEmployees().forEach(employee -> worked.put(employee, new ShiftType[schedule.getDays().size()]));
+        schedule.getShiftAssignments().stream()
+                .sorted(Comparator.comparingInt(ShiftAssignment::getDayIndex))
+                .forEach(shift -> {
+                    var d = shift.getDayIndex();
+                    var candidates = shift.getAvailableEmployees().stream()
+                                          .filter(employee -> worked.get(employee)[d] == null)
+                                          .filter(employee -> shift.getShiftType() == ShiftType.NIGHT || d == 0 || worked.get(employee)[d - 1] != ShiftType.NIGHT)
+                                          .toList();
+                    if (candidates.isEmpty()) {
+                        return;
+                    }
+                    var employee = candidates.get(random.nextInt(candidates.size()));
+                    worked.get(employee)[d] = shift.getShiftType();
+                    TestSchedules.assign(shift, employee);
+                });
+        return schedule;
+    }
+
+    /**
+     * Checks every assigned window shift against all other shifts of the employee, the ones outside of the window
+     * included.
+     */
+    private static void assertNoRestViolations(EmployeeSchedule schedule, List<ShiftAssignment> shifts, List<Employee> result) {
+        var assigned = new HashMap<ShiftAssignment, Employee>();
+        schedule.getShiftAssignments().forEach(shift -> {
+            if (shift.getEmployee() != null) {
+                assigned.put(shift, shift.getEmployee());
+            }
+        });
+        for (int i = 0; i < shifts.size(); i++) {
+            assigned.remove(shifts.get(i));
+            if (result.get(i) != null) {
+                assigned.put(shifts.get(i), result.get(i));
+            }
+        }
+        for (int i = 0; i < shifts.size(); i++) {
+            var shift = shifts.get(i);
+            var employee = result.get(i);
+            if (employee == null) {
+                continue;
+            }
+            assertThat(assigned.entrySet())
+                    .filteredOn(other -> other.getValue() == employee && other.getKey() != shift)
+                    .extracting(Map.Entry::getKey)
+                    .noneMatch(other -> other.getDayIndex() == shift.getDayIndex())
+                    .noneMatch(other -> shift.getShiftType() == ShiftType.DAY && other.getShiftType() == ShiftType.NIGHT && other.getDayIndex() == shift.getDayIndex() - 1)
+                    .noneMatch(other -> shift.getShiftType() == ShiftType.NIGHT && other.getShiftType() == ShiftType.DAY && other.getDayIndex() == shift.getDayIndex() + 1);
+        }
+    }
+
+    /**
+     * Three days, a day and a night shift on each of the first two, the window, and a day shift of Cyril pinned on the
+     * third one, so Cyril can not take the night before it. Alice is short of shifts, Bob wants the nights and nobody
+     * wants the first day shift.
+     */
+    private static EmployeeSchedule smallSchedule() {
+        var days = Day.range(START_DATE, START_DATE.plusDays(2));
+        var alice = new Employee(new EmployeeId("Alice"), 3);
+        var bob = new Employee(new EmployeeId("Bob"), 1);
+        var cyril = new Employee(new EmployeeId("Cyril"), 1);
+        var shifts = new LinkedHashSet<ShiftAssignment>();
+        for (int d = 0; d < 2; d++) {
+            shifts.add(shift(days.get(d), ShiftType.DAY));
+            shifts.add(shift(days.get(d), ShiftType.NIGHT));
+        }
+        var pinned = shift(days.get(2), ShiftType.DAY).setPinned(true);
+        shifts.add(pinned);
+        var schedule = new EmployeeSchedule();
+        schedule.setStartDate(START_DATE);
+        schedule.setEndDate(START_DATE.plusDays(2));
+        schedule.setDays(days);
+        schedule.setEmployees(new ArrayList<>(List.of(alice, bob, cyril)));
+        schedule.setAvailabilities(new ArrayList<>(List.of(
+                Availability.of(bob, days.get(0), ShiftType.NIGHT, AvailabilityType.DESIRED),
+                Availability.of(bob, days.get(1), ShiftType.NIGHT, AvailabilityType.DESIRED),
+                Availability.of(alice, days.get(0), ShiftType.DAY, AvailabilityType.UNDESIRED),
+                Availability.of(bob, days.get(0), ShiftType.DAY, AvailabilityType.UNDESIRED),
+                Availability.of(cyril, days.get(0), ShiftType.DAY, AvailabilityType.UNDESIRED)
+        )));
+        schedule.setShiftAssignments(shifts);
+        schedule.initializeFacts();
+        TestSchedules.assign(pinned, cyril);
+        // a valid but poor current assignment
+        var window = WindowBranchAndBound.windowShifts(schedule, 0, 2);
+        window.forEach(shift -> TestSchedules.assign(shift, shift.getDayIndex() == 0 ? cyril : bob));
+        window.stream()
+              .filter(shift -> shift.getDayIndex() == 0 && shift.getShiftType() == ShiftType.NIGHT)
+              .forEach(shift -> TestSchedules.assign(shift, alice));
+        window.stream()
+              .filter(shift -> shift.getDayIndex() == 1 && shift.getShiftType() == ShiftType.NIGHT)
+              .forEach(shift -> TestSchedules.assign(shift, null));
+        return schedule;
+    }
+
+    private static ShiftAssignment shift(Day day, ShiftType shiftType) {
+        return new ShiftAssignment()
+                .setDay(day)
+                .setShiftType(shiftType)
+                .setId(new ShiftAssignmentId(day.date().toString() + shiftType.getSymbol()));
+    }
+
+    private static int bruteForce(EmployeeSchedule schedule, List<ShiftAssignment> shifts, int depth, Employee[] assignment) {
+        if (depth == shifts.size()) {
+            return cost(schedule, shifts, Arrays.asList(assignment));
+        }
+        var best = Integer.MAX_VALUE;
+        var candidates = new ArrayList<Employee>(schedule.getEmployees());
+        candidates.add(null);
+        for (Employee employee : candidates) {
+            assignment[depth] = employee;
+            best = Math.min(best, bruteForce(schedule, shifts, depth + 1, assignment));
+        }
+        return best;
+    }
+
+    /**
+     * Objective of the branch and bound for a window without the weekly and consecutive day limits in reach: the
+     * local cost of every shift, assigned in the order of the window, on top of the fixed shifts outside of it.
+     */
+    private static int cost(EmployeeSchedule schedule, List<ShiftAssignment> shifts, List<Employee> assignment) {
+        var worked = new HashMap<Employee, ShiftType[]>();
+        var counts = new HashMap<Employee, Integer>();
+        schedule.getEmployees().forEach(employee -> worked.put(employee, new ShiftType[schedule.getDays().size()]));
+        schedule.getShiftAssignments().stream()
+                .filter(shift -> !shifts.contains(shift) && shift.getEmployee() != null)
+                .forEach(shift -> {
+                    worked.get(shift.getEmployee())[shift.getDayIndex()] = shift.getShiftType();
+                    counts.merge(shift.getEmployee(), 1, Integer::sum);
+                });
+        var cost = 0;
+        for (int i = 0; i < shifts.size(); i++) {
+            var shift = shifts.get(i);
+            var employee = assignment.get(i);
+            if (employee == null) {
+                cost += GreedyShiftAssigner.HARD_COST;
+                continue;
+            }
+            var days = worked.get(employee);
+            var d = shift.getDayIndex();
+            var broken = days[d] != null
+                    || shift.getShiftType() == ShiftType.DAY && d > 0 && days[d - 1] == ShiftType.NIGHT
+                    || shift.getShiftType() == ShiftType.NIGHT && d + 1 < days.length && days[d + 1] == ShiftType.DAY;
+            cost += broken ? GreedyShiftAssigner.HARD_COST : 0;
+            cost += GreedyShiftAssigner.requestCost(schedule.getAvailabilityMatrix().get(employee, shift.getDay(), shift.getShiftType()));
+            cost -= employee.getMinimumShiftCount() - counts.getOrDefault(employee, 0);
+            // a broken assignment is not counted, the same way the branch and bound costs the current assignment
+            if (!broken) {
+                days[d] = shift.getShiftType();
+                counts.merge(employee, 1, Integer::sum);
+            }
+        }
+        return cost;
+    }
+}
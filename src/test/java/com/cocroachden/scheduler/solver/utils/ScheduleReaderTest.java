@@ -0,0 +1,133 @@
+package com.cocroachden.scheduler.solver.utils;
+
+import com.cocroachden.scheduler.domain.EmployeeId;
+import com.cocroachden.scheduler.domain.EnglishVocabulary;
+import com.cocroachden.scheduler.domain.ShiftAssignmentId;
+import com.cocroachden.scheduler.solver.Availability;
+import com.cocroachden.scheduler.solver.AvailabilityType;
+import com.cocroachden.scheduler.solver.Day;
+import com.cocroachden.scheduler.solver.Employee;
+import com.cocroachden.scheduler.solver.EmployeeSchedule;
+import com.cocroachden.scheduler.solver.ShiftAssignment;
+import com.cocroachden.scheduler.solver.ShiftType;
+import com.cocroachden.scheduler.solver.TestSchedules;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ScheduleReaderTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2026, 1, 5);
+
+    private final ScheduleReader reader = new ScheduleReader(new EnglishVocabulary(), null);
+
+    @Test
+    public void itWarmStartsOnlyShiftsTheProblemStillAllows(@TempDir Path directory) throws IOException {
+        var problem = problem();
+        var alice = employee(problem, "Alice");
+        var bob = employee(problem, "Bob");
+        TestSchedules.assign(shift(problem, 0, ShiftType.NIGHT), bob);
+        var previousResult = directory.resolve("result.xlsx");
+        // the previous result has one day more than the problem
+        writeResult(previousResult, START_DATE.plusDays(3), Map.of(
+                "Alice", List.of("D", "D", "N", "D"),
+                // already works the night of the first day, unavailable for the day shifts of the second one
+                "Bob", List.of("D", "D", "", ""),
+                "Carol", List.of("N", "", "", "")
+        ));
+
+        var assigned = reader.readAssignments(previousResult.toFile(), problem);
+
+        assertThat(assigned).isEqualTo(2);
+        assertThat(alice.getShiftAssignments()).extracting(ShiftAssignment::getDayIndex, ShiftAssignment::getShiftType)
+                                               .containsExactlyInAnyOrder(
+                                                       tuple(0, ShiftType.DAY),
+                                                       tuple(1, ShiftType.DAY)
+                                               );
+        assertThat(bob.getShiftAssignments()).containsExactly(shift(problem, 0, ShiftType.NIGHT));
+        assertThat(problem.getShiftAssignments().stream().filter(shift -> shift.getEmployee() == null)).hasSize(1);
+        assertThat(alice.getAssignmentInfo().getDayShifts()).isEqualTo(2);
+    }
+
+    /**
+     * Three days, a day and a night shift on the first one, two day shifts on the second one and no shift on the
+     * third one. Bob is unavailable for the day shifts of the second day.
+     */
+    private static EmployeeSchedule problem() {
+        var days = Day.range(START_DATE, START_DATE.plusDays(2));
+        var alice = new Employee(new EmployeeId("Alice"), 2);
+        var bob = new Employee(new EmployeeId("Bob"), 2);
+        var shifts = new LinkedHashSet<ShiftAssignment>();
+        shifts.add(shift(days.get(0), ShiftType.DAY, 0));
+        shifts.add(shift(days.get(0), ShiftType.NIGHT, 0));
+        shifts.add(shift(days.get(1), ShiftType.DAY, 0));
+        shifts.add(shift(days.get(1), ShiftType.DAY, 1));
+        var schedule = new EmployeeSchedule();
+        schedule.setStartDate(START_DATE);
+        schedule.setEndDate(START_DATE.plusDays(2));
+        schedule.setDays(days);
+        schedule.setEmployees(new ArrayList<>(List.of(alice, bob)));
+        schedule.setAvailabilities(new ArrayList<>(List.of(Availability.of(bob, days.get(1), ShiftType.DAY, AvailabilityType.UNAVAILABLE))));
+        schedule.setShiftAssignments(shifts);
+        schedule.initializeFacts();
+        return schedule;
+    }
+
+    private static ShiftAssignment shift(Day day, ShiftType shiftType, int i) {
+        return new ShiftAssignment()
+                .setDay(day)
+                .setShiftType(shiftType)
+                .setId(new ShiftAssignmentId(day.date().toString() + shiftType.name().charAt(0) + i));
+    }
+
+    private static ShiftAssignment shift(EmployeeSchedule schedule, int dayIndex, ShiftType shiftType) {
+        return schedule.getShiftAssignments().stream()
+                       .filter(shift -> shift.getDayIndex() == dayIndex && shift.getShiftType() == shiftType)
+                       .findFirst()
+                       .orElseThrow();
+    }
+
+    private static Employee employee(EmployeeSchedule schedule, String name) {
+        return schedule.getEmployees().stream()
+                       .filter(employee -> employee.getEmployeeId().id().equals(name))
+                       .findAny()
+                       .orElseThrow();
+    }
+
+    /**
+     * Result sheet laid out the way the writer lays it out, a row of shift symbols per employee from {@link #START_DATE}.
+     */
+    private static void writeResult(Path path, LocalDate endDate, Map<String, List<String>> symbols) throws IOException {
+        try (var workbook = new XSSFWorkbook(); var out = new FileOutputStream(path.toFile())) {
+            var sheet = workbook.createSheet(ScheduleProperties.RESULT_WB_NAME);
+            sheet.createRow(ScheduleProperties.START_DATE_VALUE_CELL.row())
+                 .createCell(ScheduleProperties.START_DATE_VALUE_CELL.column())
+                 .setCellValue(START_DATE.format(ScheduleProperties.SCHEDULE_DATE_FORMAT));
+            sheet.createRow(ScheduleProperties.END_DATE_VALUE_CELL.row())
+                 .createCell(ScheduleProperties.END_DATE_VALUE_CELL.column())
+                 .setCellValue(endDate.format(ScheduleProperties.SCHEDULE_DATE_FORMAT));
+            var rowIndex = ScheduleProperties.SCHEDULE_TABLE_START.row();
+            for (String name : List.of("Alice", "Bob", "Carol")) {
+                var row = sheet.createRow(rowIndex++);
+                row.createCell(ScheduleProperties.SCHEDULE_TABLE_START.column()).setCellValue(name);
+                var employeeSymbols = symbols.get(name);
+                for (int d = 0; d < employeeSymbols.size(); d++) {
+                    row.createCell(ScheduleProperties.SCHEDULE_TABLE_START.column() + 2 + d).setCellValue(employeeSymbols.get(d));
+                }
+            }
+            workbook.write(out);
+        }
+    }
+}